@@ -8,10 +8,11 @@
 import javafx.animation.*;
 import javafx.application.Application;
 import javafx.application.Platform;
-import javafx.beans.property.*;
+import javafx.beans.value.*;
 import javafx.collections.*;
 import javafx.geometry.*;
 import javafx.scene.*;
+import javafx.scene.canvas.*;
 import javafx.scene.chart.*;
 import javafx.scene.control.*;
 import javafx.scene.effect.*;
@@ -26,48 +27,2999 @@ import javafx.util.Duration;
 
 import java.io.*;
 import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
 
 public class ModernFinanceApp extends Application {
     
     private static final String BASE_FOLDER = System.getProperty("user.home") + "/Desktop/app";
     private static final String ACCOUNTS_FILE = BASE_FOLDER + "/Accounts.csv";
+    // -Dfinanceflow.store=binary keeps snapshots in <user>.fcol instead of <user>.csv
+    private static final boolean BINARY_STORE = "binary".equalsIgnoreCase(System.getProperty("financeflow.store", "csv"));
+    // Diagnostics: slow tasks at FINE, skipped or recovered data at WARNING
+    private static final java.util.logging.Logger LOG = java.util.logging.Logger.getLogger(ModernFinanceApp.class.getName());
     
     private Stage primaryStage;
     private String currentUserId = null;
     private VBox transactionsList;
+    private final RowIdList visibleRows = new RowIdList();
+    private String typeFilterValue = "All";
+    private String categoryFilterValue = "All Categories";
+    private LocalDate dateFromFilter, dateToFilter;
+    private String searchQuery = "";
     private String currentTab = "Dashboard";
     private StackPane mainContentArea;
     private BorderPane rootPane;
+    private PersistenceWriter persistence;
+    private boolean loading;
+    private boolean progressiveTotals;
+    private int loadedRows;
 
-    // Enhanced Data Model
+    // Enhanced Data Model - read-only view of one TransactionTable row, created on demand for the UI
     public static class Transaction {
-        private final ObjectProperty<LocalDate> date = new SimpleObjectProperty<>();
-        private final StringProperty type = new SimpleStringProperty();
-        private final StringProperty category = new SimpleStringProperty();
-        private final DoubleProperty amount = new SimpleDoubleProperty();
-        private final StringProperty note = new SimpleStringProperty();
+        private final int row;
+        private final LocalDate date;
+        private final String type;
+        private final String category;
+        private final double amount;
+        private final String note;
 
         public Transaction(LocalDate date, String type, String category, double amount, String note) {
-            this.date.set(date);
-            this.type.set(type);
-            this.category.set(category);
-            this.amount.set(amount);
-            this.note.set(note);
+            this(-1, date, type, category, amount, note);
+        }
+
+        Transaction(int row, LocalDate date, String type, String category, double amount, String note) {
+            this.row = row;
+            this.date = date;
+            this.type = type;
+            this.category = category;
+            this.amount = amount;
+            this.note = note;
         }
 
         // Getters
-        public LocalDate getDate() { return date.get(); }
-        public String getType() { return type.get(); }
-        public String getCategory() { return category.get(); }
-        public double getAmount() { return amount.get(); }
-        public String getNote() { return note.get(); }
+        public int getRow() { return row; }
+        public LocalDate getDate() { return date; }
+        public String getType() { return type; }
+        public String getCategory() { return category; }
+        public double getAmount() { return amount; }
+        public String getNote() { return note; }
+    }
+
+    // Struct-of-arrays storage for every transaction of the current user.
+    // Row ids stay stable for the session; deleted rows are tombstoned and dropped on the next snapshot.
+    static final class TransactionTable {
+        static final byte INCOME = 0;
+        static final byte EXPENSE = 1;
+        static final long AMOUNT_SCALE = 100;
+
+        private int[] epochDays = new int[64];
+        private byte[] types = new byte[64];
+        private short[] categoryIds = new short[64];
+        private long[] amounts = new long[64];
+        private int[] noteOffsets = new int[65];
+        private final StringBuilder notePool = new StringBuilder();
+        private final BitSet deleted = new BitSet();
+        private int size;
+        private int liveCount;
+
+        private final List<String> typeNames = new ArrayList<>();
+        private final Map<String, Byte> typeIds = new HashMap<>();
+        private final List<String> categoryNames = new ArrayList<>();
+        private final Map<String, Short> categoryIdsByName = new HashMap<>();
+
+        TransactionTable() {
+            clear();
+        }
+
+        int append(Transaction t) {
+            if (!isSupported(t.getDate())) {
+                throw new IllegalArgumentException("Unsupported date: " + t.getDate());
+            }
+            return append((int) t.getDate().toEpochDay(), t.getType(), t.getCategory(), toFixed(t.getAmount()), t.getNote());
+        }
+
+        // Four-digit years only, which is what the CSV format holds and keeps epoch days well inside an int
+        static boolean isSupported(LocalDate date) {
+            return date != null && date.getYear() >= 1 && date.getYear() <= 9999;
+        }
+
+        int append(int epochDay, String type, String category, long amount, String note) {
+            if (size == epochDays.length) {
+                int capacity = size * 2;
+                epochDays = Arrays.copyOf(epochDays, capacity);
+                types = Arrays.copyOf(types, capacity);
+                categoryIds = Arrays.copyOf(categoryIds, capacity);
+                amounts = Arrays.copyOf(amounts, capacity);
+                noteOffsets = Arrays.copyOf(noteOffsets, capacity + 1);
+            }
+
+            int row = size++;
+            epochDays[row] = epochDay;
+            types[row] = typeId(type);
+            categoryIds[row] = categoryId(category);
+            amounts[row] = amount;
+            if (note != null) notePool.append(note);
+            noteOffsets[row + 1] = notePool.length();
+            liveCount++;
+            return row;
+        }
+
+        void delete(int row) {
+            if (isLive(row)) {
+                deleted.set(row);
+                liveCount--;
+            }
+        }
+
+        void clear() {
+            size = 0;
+            liveCount = 0;
+            deleted.clear();
+            notePool.setLength(0);
+            typeNames.clear();
+            typeIds.clear();
+            categoryNames.clear();
+            categoryIdsByName.clear();
+            typeId("Income");
+            typeId("Expense");
+        }
+
+        // Number of row ids handed out, including tombstones
+        int size() { return size; }
+        int liveCount() { return liveCount; }
+        boolean isLive(int row) { return row >= 0 && row < size && !deleted.get(row); }
+
+        int epochDay(int row) { return epochDays[row]; }
+        byte type(int row) { return types[row]; }
+        short categoryId(int row) { return categoryIds[row]; }
+        long amount(int row) { return amounts[row]; }
+        String note(int row) { return notePool.substring(noteOffsets[row], noteOffsets[row + 1]); }
+        String typeName(byte typeId) { return typeNames.get(typeId); }
+        String categoryName(short categoryId) { return categoryNames.get(categoryId); }
+        Short categoryIdOf(String category) { return categoryIdsByName.get(category); }
+        int typeCount() { return typeNames.size(); }
+        int categoryCount() { return categoryNames.size(); }
+
+        IntStream liveRows() {
+            return IntStream.range(0, size).filter(row -> !deleted.get(row));
+        }
+
+        // Frozen copy for background writers; only array copies, so it is cheap enough for the FX thread
+        TransactionTable copy() {
+            TransactionTable copy = new TransactionTable();
+            copy.epochDays = Arrays.copyOf(epochDays, size);
+            copy.types = Arrays.copyOf(types, size);
+            copy.categoryIds = Arrays.copyOf(categoryIds, size);
+            copy.amounts = Arrays.copyOf(amounts, size);
+            copy.noteOffsets = Arrays.copyOf(noteOffsets, size + 1);
+            copy.notePool.append(notePool);
+            copy.deleted.or(deleted);
+            copy.size = size;
+            copy.liveCount = liveCount;
+            copy.typeNames.clear();
+            copy.typeNames.addAll(typeNames);
+            copy.typeIds.clear();
+            copy.typeIds.putAll(typeIds);
+            copy.categoryNames.addAll(categoryNames);
+            copy.categoryIdsByName.putAll(categoryIdsByName);
+            return copy;
+        }
+
+        Transaction get(int row) {
+            return new Transaction(row, LocalDate.ofEpochDay(epochDays[row]), typeNames.get(types[row]),
+                    categoryNames.get(categoryIds[row]), toAmount(amounts[row]), note(row));
+        }
+
+        // Latest live row holding the same values, or -1
+        int find(Transaction t) {
+            Byte type = typeIds.get(typeKey(t.getType()));
+            Short category = categoryIdsByName.get(nullToEmpty(t.getCategory()));
+            if (type == null || category == null) return -1;
+
+            int epochDay = (int) t.getDate().toEpochDay();
+            long amount = toFixed(t.getAmount());
+            String note = nullToEmpty(t.getNote());
+            for (int row = size - 1; row >= 0; row--) {
+                if (epochDays[row] == epochDay && types[row] == type && categoryIds[row] == category
+                        && amounts[row] == amount && isLive(row) && note(row).equals(note)) {
+                    return row;
+                }
+            }
+            return -1;
+        }
+
+        // Whether a live row holds the same values, compared the way find() does
+        boolean matches(int row, Transaction t) {
+            return isLive(row) && epochDays[row] == t.getDate().toEpochDay()
+                    && typeNames.get(types[row]).equals(typeKey(t.getType()))
+                    && categoryNames.get(categoryIds[row]).equals(nullToEmpty(t.getCategory()))
+                    && amounts[row] == toFixed(t.getAmount()) && note(row).equals(nullToEmpty(t.getNote()));
+        }
+
+        // Hash of the values find() compares, for matching rows that are not in a table yet
+        static long valueHash(long epochDay, String type, String category, long amount, String note) {
+            long hash = epochDay;
+            hash = hash * 1_000_003 + typeKey(type).hashCode();
+            hash = hash * 1_000_003 + nullToEmpty(category).hashCode();
+            hash = hash * 1_000_003 + amount;
+            return hash * 1_000_003 + nullToEmpty(note).hashCode();
+        }
+
+        static long valueHash(Transaction t) {
+            return valueHash(t.getDate().toEpochDay(), t.getType(), t.getCategory(), toFixed(t.getAmount()), t.getNote());
+        }
+
+        private byte typeId(String type) {
+            String key = typeKey(type);
+            Byte id = typeIds.get(key);
+            if (id == null) {
+                if (typeNames.size() > Byte.MAX_VALUE) throw new IllegalStateException("Too many transaction types");
+                id = (byte) typeNames.size();
+                typeNames.add(nullToEmpty(type));
+                typeIds.put(key, id);
+            }
+            return id;
+        }
+
+        // Income and Expense have always been matched case-insensitively
+        private static String typeKey(String type) {
+            if ("Income".equalsIgnoreCase(type)) return "Income";
+            if ("Expense".equalsIgnoreCase(type)) return "Expense";
+            return nullToEmpty(type);
+        }
+
+        private short categoryId(String category) {
+            String key = nullToEmpty(category);
+            Short id = categoryIdsByName.get(key);
+            if (id == null) {
+                if (categoryNames.size() > Short.MAX_VALUE) throw new IllegalStateException("Too many categories");
+                id = (short) categoryNames.size();
+                categoryNames.add(key);
+                categoryIdsByName.put(key, id);
+            }
+            return id;
+        }
+
+        static long toFixed(double amount) {
+            return Math.round(amount * AMOUNT_SCALE);
+        }
+
+        static double toAmount(long fixed) {
+            return fixed / (double) AMOUNT_SCALE;
+        }
+
+        private static String nullToEmpty(String text) {
+            return text == null ? "" : text;
+        }
+    }
+
+    // Running totals kept in step with the table, so dashboard refreshes never rescan the history
+    static final class AggregateEngine {
+        private final TransactionTable table;
+        private final RollupCube cube = new RollupCube();
+        private long totalIncome;
+        private long totalExpense;
+        private long[] categoryExpenses = new long[16];
+        // Month-to-date and week figures are relative to today, so the cached snapshot is keyed on the day
+        // as well as on edits and is recomputed after midnight even when nothing changed
+        private long changes;
+        private long snapshotChanges = -1;
+        private long snapshotDay;
+        private AnalyticsSnapshot snapshot;
+
+        AggregateEngine(TransactionTable table) {
+            this.table = table;
+        }
+
+        void rebuild() {
+            cube.clear();
+            for (int row = 0; row < table.size(); row++) {
+                if (table.isLive(row)) cube.add(table, row, 1);
+            }
+            refreshTotals();
+        }
+
+        // Uses the cube saved next to the user file when it was written for exactly these files
+        boolean restore(java.nio.file.Path cubeFile, String storageStamp) {
+            if (!cube.load(cubeFile, storageStamp, table)) return false;
+            refreshTotals();
+            return true;
+        }
+
+        void save(java.nio.file.Path cubeFile, String storageStamp) throws IOException {
+            cube.save(cubeFile, storageStamp, table);
+        }
+
+        void added(int row) {
+            apply(row, 1);
+        }
+
+        void removed(int row) {
+            apply(row, -1);
+        }
+
+        private void apply(int row, int sign) {
+            byte type = table.type(row);
+            if (type != TransactionTable.INCOME && type != TransactionTable.EXPENSE) return;
+
+            cube.add(table, row, sign);
+            changes++;
+            long amount = sign * table.amount(row);
+            if (type == TransactionTable.INCOME) {
+                totalIncome += amount;
+            } else {
+                totalExpense += amount;
+                addCategoryExpense(table.categoryId(row), amount);
+            }
+        }
+
+        private void refreshTotals() {
+            changes++;
+            totalIncome = cube.sum(TransactionTable.INCOME, RollupCube.ALL_CATEGORIES, Long.MIN_VALUE, Long.MAX_VALUE);
+            totalExpense = cube.sum(TransactionTable.EXPENSE, RollupCube.ALL_CATEGORIES, Long.MIN_VALUE, Long.MAX_VALUE);
+            categoryExpenses = new long[Math.max(16, table.categoryCount())];
+            for (short id = 0; id < table.categoryCount(); id++) {
+                addCategoryExpense(id, cube.sum(TransactionTable.EXPENSE, id, Long.MIN_VALUE, Long.MAX_VALUE));
+            }
+        }
+
+        private void addCategoryExpense(short category, long amount) {
+            if (category >= categoryExpenses.length) {
+                categoryExpenses = Arrays.copyOf(categoryExpenses, Math.max(category + 1, categoryExpenses.length * 2));
+            }
+            categoryExpenses[category] += amount;
+        }
+
+        long totalIncome() { return totalIncome; }
+        long totalExpense() { return totalExpense; }
+
+        long dayTotal(byte type, LocalDate date) {
+            return cube.sum(type, RollupCube.ALL_CATEGORIES, date.toEpochDay(), date.toEpochDay());
+        }
+
+        long rangeTotal(byte type, short category, LocalDate from, LocalDate to) {
+            return cube.sum(type, category, from.toEpochDay(), to.toEpochDay());
+        }
+
+        // Expense total per category name, for categories that have any expenses
+        Map<String, Double> categoryExpenses() {
+            Map<String, Double> totals = new LinkedHashMap<>();
+            for (short id = 0; id < table.categoryCount() && id < categoryExpenses.length; id++) {
+                if (categoryExpenses[id] != 0) {
+                    totals.put(table.categoryName(id), TransactionTable.toAmount(categoryExpenses[id]));
+                }
+            }
+            return totals;
+        }
+
+        // Every Analytics and Budget figure in one go, each answered by a handful of cube cells
+        AnalyticsSnapshot snapshot(LocalDate today) {
+            long todayDay = today.toEpochDay();
+            if (snapshot == null || snapshotChanges != changes || snapshotDay != todayDay) {
+                snapshot = computeSnapshot(today);
+                snapshotChanges = changes;
+                snapshotDay = todayDay;
+            }
+            return snapshot;
+        }
+
+        private AnalyticsSnapshot computeSnapshot(LocalDate today) {
+            long todayDay = today.toEpochDay();
+            long monthStart = today.withDayOfMonth(1).toEpochDay();
+            long weekStart = today.minusDays(7).toEpochDay();
+
+            long[] month = new long[2];
+            long[] week = new long[2];
+            for (byte type = TransactionTable.INCOME; type <= TransactionTable.EXPENSE; type++) {
+                month[type] = cube.sum(type, RollupCube.ALL_CATEGORIES, monthStart, todayDay);
+                // Future-dated entries count towards the week, as they always have
+                week[type] = cube.sum(type, RollupCube.ALL_CATEGORIES, weekStart + 1, Long.MAX_VALUE);
+            }
+
+            long[] trendExpenses = new long[AnalyticsSnapshot.TREND_MONTHS];
+            for (int i = 0; i < trendExpenses.length; i++) {
+                LocalDate monthDate = today.minusMonths(trendExpenses.length - 1 - i).withDayOfMonth(1);
+                trendExpenses[i] = cube.sum(TransactionTable.EXPENSE, RollupCube.ALL_CATEGORIES,
+                        monthDate.toEpochDay(), monthDate.plusMonths(1).toEpochDay() - 1);
+            }
+            return new AnalyticsSnapshot(today, month, week, trendExpenses, categoryExpenses());
+        }
+    }
+
+    // Live row ids ordered by (epoch day, row id), so any date window is two binary searches away
+    static final class DateIndex {
+        private final TransactionTable table;
+        private int[] rows = new int[64];
+        private int size;
+
+        DateIndex(TransactionTable table) {
+            this.table = table;
+        }
+
+        void rebuild() {
+            long[] keys = table.liveRows().mapToLong(this::key).toArray();
+            Arrays.sort(keys);
+            rows = new int[Math.max(64, keys.length)];
+            size = keys.length;
+            for (int i = 0; i < size; i++) {
+                rows[i] = (int) keys[i];
+            }
+        }
+
+        // Takes over an index built for an identical table
+        void adopt(DateIndex built) {
+            rows = built.rows;
+            size = built.size;
+        }
+
+        // New rows usually carry today's date, so the insert point is at or near the tail
+        void added(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            int position = search(key(row));
+            System.arraycopy(rows, position, rows, position + 1, size - position);
+            rows[position] = row;
+            size++;
+        }
+
+        void removed(int row) {
+            int position = search(key(row));
+            if (position < size && rows[position] == row) {
+                System.arraycopy(rows, position + 1, rows, position, size - position - 1);
+                size--;
+            }
+        }
+
+        int size() { return size; }
+        int row(int position) { return rows[position]; }
+
+        // Position of a live row that is in the index
+        int positionOf(int row) {
+            return search(key(row));
+        }
+
+        // First position dated on or after the day
+        int lowerBound(long epochDay) {
+            return epochDay == Long.MIN_VALUE ? 0 : search(epochDay << 32);
+        }
+
+        // First position dated after the day
+        int upperBound(long epochDay) {
+            return epochDay == Long.MAX_VALUE ? size : search((epochDay + 1) << 32);
+        }
+
+        // First position whose key is not less than the given key
+        private int search(long key) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (key(rows[mid]) < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private long key(int row) {
+            return ((long) table.epochDay(row) << 32) | row;
+        }
+    }
+
+    // One bitmap per type and per category, indexed by position in the date index rather than by row,
+    // so a filter is the AND of the selected bitmaps and a date window is just a bit range. An edit
+    // away from the tail shifts the later bits by one, a word at a time, instead of reindexing
+    static final class FilterIndex {
+        static final int ANY = -1;
+
+        private final TransactionTable table;
+        private final DateIndex dateIndex;
+        private final List<PositionBits> byType = new ArrayList<>();
+        private final List<PositionBits> byCategory = new ArrayList<>();
+        private boolean stale = true;
+
+        FilterIndex(TransactionTable table, DateIndex dateIndex) {
+            this.table = table;
+            this.dateIndex = dateIndex;
+        }
+
+        void rebuild() {
+            stale = true;
+        }
+
+        // Takes over an index built for an identical table
+        void adopt(FilterIndex built) {
+            byType.clear();
+            byType.addAll(built.byType);
+            byCategory.clear();
+            byCategory.addAll(built.byCategory);
+            stale = built.stale;
+        }
+
+        // Call after the date index has taken the row
+        void added(int row) {
+            if (stale) return;
+            int position = dateIndex.positionOf(row);
+            int size = dateIndex.size() - 1;
+            if (position < size) {
+                byType.forEach(bits -> bits.insert(position, size));
+                byCategory.forEach(bits -> bits.insert(position, size));
+            }
+            bitmap(byType, table.type(row)).set(position);
+            bitmap(byCategory, table.categoryId(row)).set(position);
+        }
+
+        // Call before the date index drops the row
+        void removed(int row) {
+            if (stale) return;
+            int position = dateIndex.positionOf(row);
+            int size = dateIndex.size();
+            byType.forEach(bits -> bits.remove(position, size));
+            byCategory.forEach(bits -> bits.remove(position, size));
+        }
+
+        // Matching rows, newest first; type and category are dictionary ids or ANY
+        int[] query(int type, int category, long fromDay, long toDay) {
+            int from = dateIndex.lowerBound(fromDay);
+            int to = dateIndex.upperBound(toDay);
+            if (from >= to) {
+                return new int[0];
+            }
+            if (type == ANY && category == ANY) {
+                int[] rows = new int[to - from];
+                for (int i = 0; i < rows.length; i++) {
+                    rows[i] = dateIndex.row(to - 1 - i);
+                }
+                return rows;
+            }
+
+            if (stale) {
+                reindex();
+            }
+            BitSet mask;
+            if (type != ANY) {
+                mask = bitmap(byType, type).get(from, to);
+                if (category != ANY) {
+                    mask.and(bitmap(byCategory, category).get(from, to));
+                }
+            } else {
+                mask = bitmap(byCategory, category).get(from, to);
+            }
+
+            int[] rows = new int[mask.cardinality()];
+            int count = 0;
+            for (int bit = mask.length() - 1; bit >= 0; bit = mask.previousSetBit(bit - 1)) {
+                rows[count++] = dateIndex.row(from + bit);
+            }
+            return rows;
+        }
+
+        void reindex() {
+            byType.clear();
+            byCategory.clear();
+            for (int position = 0; position < dateIndex.size(); position++) {
+                int row = dateIndex.row(position);
+                bitmap(byType, table.type(row)).set(position);
+                bitmap(byCategory, table.categoryId(row)).set(position);
+            }
+            stale = false;
+        }
+
+        private static PositionBits bitmap(List<PositionBits> bitmaps, int id) {
+            while (bitmaps.size() <= id) {
+                bitmaps.add(new PositionBits());
+            }
+            return bitmaps.get(id);
+        }
+
+        // A bit per date-index position that can open or close a gap anywhere
+        static final class PositionBits {
+            private long[] words = new long[1];
+
+            void set(int position) {
+                ensure(position);
+                words[position >>> 6] |= 1L << position;
+            }
+
+            // Bits [from, to) as a BitSet starting at zero
+            BitSet get(int from, int to) {
+                return BitSet.valueOf(words).get(from, to);
+            }
+
+            // Opens a clear bit at position; size is the number of positions before the insert
+            void insert(int position, int size) {
+                ensure(size);
+                int first = position >>> 6;
+                for (int i = size >>> 6; i > first; i--) {
+                    words[i] = (words[i] << 1) | (words[i - 1] >>> 63);
+                }
+                long below = (1L << position) - 1;
+                words[first] = (words[first] & below) | ((words[first] & ~below) << 1);
+            }
+
+            // Closes the gap left by position; size is the number of positions before the removal
+            void remove(int position, int size) {
+                int first = position >>> 6;
+                if (first >= words.length) return;
+                int last = Math.min((size - 1) >>> 6, words.length - 1);
+                long below = (1L << position) - 1;
+                words[first] = (words[first] & below) | ((words[first] >>> 1) & ~below);
+                for (int i = first; i < last; i++) {
+                    words[i] |= words[i + 1] << 63;
+                    words[i + 1] >>>= 1;
+                }
+            }
+
+            private void ensure(int position) {
+                int word = position >>> 6;
+                if (word >= words.length) {
+                    words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+                }
+            }
+        }
+    }
+
+    // Inverted index from lower-case tokens to the rows containing them; the sorted token map
+    // turns a partial word into a contiguous key range, so "ub" finds every "uber" row
+    static final class TextIndex {
+        private final TransactionTable table;
+        private final TreeMap<String, Postings> postings = new TreeMap<>();
+
+        TextIndex(TransactionTable table) {
+            this.table = table;
+        }
+
+        void rebuild() {
+            postings.clear();
+            table.liveRows().forEach(this::added);
+        }
+
+        // Takes over an index built for an identical table; copying a sorted map is linear
+        void adopt(TextIndex built) {
+            postings.clear();
+            postings.putAll(built.postings);
+        }
+
+        void added(int row) {
+            for (String token : tokens(row)) {
+                postings.computeIfAbsent(token, key -> new Postings()).add(row);
+            }
+        }
+
+        // Must run while the row is still readable
+        void removed(int row) {
+            for (String token : tokens(row)) {
+                Postings rows = postings.get(token);
+                if (rows != null && rows.remove(row)) {
+                    postings.remove(token);
+                }
+            }
+        }
+
+        // Sorted rows matching every word of the query, each word taken as a prefix
+        int[] search(String query) {
+            int[] result = null;
+            for (String word : split(query)) {
+                Collection<Postings> lists = postings.subMap(word, true, word + Character.MAX_VALUE, false).values();
+                int[] matches = union(lists);
+                result = result == null ? matches : intersect(result, matches);
+                if (result.length == 0) {
+                    break;
+                }
+            }
+            return result == null ? new int[0] : result;
+        }
+
+        private static int[] union(Collection<Postings> lists) {
+            if (lists.size() == 1) {
+                Postings only = lists.iterator().next();
+                return Arrays.copyOf(only.rows, only.size);
+            }
+            int total = 0;
+            for (Postings list : lists) {
+                total += list.size;
+            }
+            int[] rows = new int[total];
+            int count = 0;
+            for (Postings list : lists) {
+                System.arraycopy(list.rows, 0, rows, count, list.size);
+                count += list.size;
+            }
+            Arrays.sort(rows);
+            int unique = 0;
+            for (int i = 0; i < count; i++) {
+                if (unique == 0 || rows[unique - 1] != rows[i]) {
+                    rows[unique++] = rows[i];
+                }
+            }
+            return Arrays.copyOf(rows, unique);
+        }
+
+        private static int[] intersect(int[] a, int[] b) {
+            int[] rows = new int[Math.min(a.length, b.length)];
+            int count = 0;
+            for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    rows[count++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(rows, count);
+        }
+
+        // Sorted row ids for one token; memory follows the number of rows holding it, not the highest row id.
+        // Row ids grow with every insert, so adds almost always land at the end
+        static final class Postings {
+            private int[] rows = new int[1];
+            private int size;
+
+            void add(int row) {
+                int position = size > 0 && rows[size - 1] < row ? size : Arrays.binarySearch(rows, 0, size, row);
+                if (position < 0) {
+                    position = -position - 1;
+                } else if (position < size) {
+                    return;
+                }
+                if (size == rows.length) {
+                    rows = Arrays.copyOf(rows, size * 2);
+                }
+                System.arraycopy(rows, position, rows, position + 1, size - position);
+                rows[position] = row;
+                size++;
+            }
+
+            // True once the list is empty
+            boolean remove(int row) {
+                int position = Arrays.binarySearch(rows, 0, size, row);
+                if (position >= 0) {
+                    System.arraycopy(rows, position + 1, rows, position, size - position - 1);
+                    size--;
+                }
+                return size == 0;
+            }
+        }
+
+        // Notes plus the category and month name, so "rent march" works without the month in the note
+        private Set<String> tokens(int row) {
+            Set<String> tokens = new HashSet<>(split(table.note(row)));
+            tokens.addAll(split(table.categoryName(table.categoryId(row))));
+            LocalDate date = LocalDate.ofEpochDay(table.epochDay(row));
+            tokens.add(date.getMonth().name().toLowerCase(Locale.ROOT));
+            tokens.add(Integer.toString(date.getYear()));
+            return tokens;
+        }
+
+        static List<String> split(String text) {
+            List<String> words = new ArrayList<>();
+            int start = -1;
+            for (int i = 0; i <= text.length(); i++) {
+                boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+                if (wordChar && start < 0) {
+                    start = i;
+                } else if (!wordChar && start >= 0) {
+                    words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                    start = -1;
+                }
+            }
+            return words;
+        }
+    }
+
+    // Fenwick trees over epoch days, one per (category, type) plus an all-categories tree per type,
+    // giving O(log n) updates and O(log n) sums for any custom period
+    static final class DailyBalanceIndex {
+        static final short ALL_CATEGORIES = -1;
+        private static final int MIN_CAPACITY = 1024;
+        // The trees only span days this close to today, so one mistyped year cannot size them
+        private static final int PAST_WINDOW_DAYS = 50 * 366;
+        private static final int FUTURE_WINDOW_DAYS = 10 * 366;
+
+        private final TransactionTable table;
+        private long baseDay;
+        private int capacity;
+        // [category + 1][type] -> tree, created on first use
+        private long[][][] trees = new long[0][][];
+        // Rows outside the trees' span, by (category + 1) * 2 + type, then day
+        private final Map<Integer, TreeMap<Long, Long>> outliers = new HashMap<>();
+
+        DailyBalanceIndex(TransactionTable table) {
+            this.table = table;
+        }
+
+        void rebuild() {
+            long minDay = Long.MAX_VALUE;
+            long maxDay = Long.MIN_VALUE;
+            for (int row = 0; row < table.size(); row++) {
+                if (!table.isLive(row)) continue;
+                minDay = Math.min(minDay, table.epochDay(row));
+                maxDay = Math.max(maxDay, table.epochDay(row));
+            }
+            long today = LocalDate.now().toEpochDay();
+            if (minDay > maxDay) {
+                minDay = maxDay = today;
+            }
+            rebuild(Math.max(minDay, today - PAST_WINDOW_DAYS), Math.min(maxDay, today + FUTURE_WINDOW_DAYS));
+        }
+
+        // Takes over an index built for an identical table
+        void adopt(DailyBalanceIndex built) {
+            baseDay = built.baseDay;
+            capacity = built.capacity;
+            trees = built.trees;
+            outliers.clear();
+            outliers.putAll(built.outliers);
+        }
+
+        // Leaves a year of headroom either side so ordinary inserts never trigger a rebuild
+        private void rebuild(long minDay, long maxDay) {
+            if (minDay > maxDay) {
+                // Every row is an outlier on the same side of today
+                minDay = maxDay = LocalDate.now().toEpochDay();
+            }
+            baseDay = minDay - 366;
+            capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit((int) (maxDay + 366 - baseDay)) * 2);
+            trees = new long[table.categoryCount() + 1][][];
+            outliers.clear();
+
+            for (int row = 0; row < table.size(); row++) {
+                if (!table.isLive(row) || !isTracked(table.type(row))) continue;
+                long day = table.epochDay(row);
+                if (!inTrees(day)) {
+                    addOutlier(table.categoryId(row), table.type(row), day, table.amount(row));
+                    continue;
+                }
+                int slot = (int) (day - baseDay) + 1;
+                tree(table.categoryId(row), table.type(row))[slot] += table.amount(row);
+                tree(ALL_CATEGORIES, table.type(row))[slot] += table.amount(row);
+            }
+            // Linear-time Fenwick construction from the point values
+            for (long[][] byType : trees) {
+                if (byType == null) continue;
+                for (long[] tree : byType) {
+                    if (tree == null) continue;
+                    for (int i = 1; i <= capacity; i++) {
+                        int parent = i + (i & -i);
+                        if (parent <= capacity) tree[parent] += tree[i];
+                    }
+                }
+            }
+        }
+
+        void added(int row) {
+            update(row, 1);
+        }
+
+        // Called while the row is still live
+        void removed(int row) {
+            update(row, -1);
+        }
+
+        private void update(int row, int sign) {
+            byte type = table.type(row);
+            if (!isTracked(type)) return;
+
+            long day = table.epochDay(row);
+            long amount = sign * table.amount(row);
+            if (!inTrees(day)) {
+                long today = LocalDate.now().toEpochDay();
+                if (day < today - PAST_WINDOW_DAYS || day > today + FUTURE_WINDOW_DAYS) {
+                    addOutlier(table.categoryId(row), type, day, amount);
+                    return;
+                }
+                // The rebuild already counts the live row, which is all an insert needs
+                rebuild();
+                if (sign < 0) update(row, sign);
+                return;
+            }
+            int slot = (int) (day - baseDay) + 1;
+            add(tree(table.categoryId(row), type), slot, amount);
+            add(tree(ALL_CATEGORIES, type), slot, amount);
+        }
+
+        private boolean inTrees(long day) {
+            return day >= baseDay && day < baseDay + capacity;
+        }
+
+        private void addOutlier(short category, byte type, long day, long amount) {
+            for (int key : new int[] {(category + 1) * 2 + type, type}) {
+                TreeMap<Long, Long> days = outliers.computeIfAbsent(key, k -> new TreeMap<>());
+                long total = days.merge(day, amount, Long::sum);
+                if (total == 0) days.remove(day);
+            }
+        }
+
+        private void add(long[] tree, int slot, long amount) {
+            for (int i = slot; i <= capacity; i += i & -i) {
+                tree[i] += amount;
+            }
+        }
+
+        // Sum of one type over [fromDay, toDay], for a single category or ALL_CATEGORIES
+        long rangeSum(byte type, short category, long fromDay, long toDay) {
+            long sum = 0;
+            if (fromDay <= toDay) {
+                TreeMap<Long, Long> days = outliers.get((category + 1) * 2 + type);
+                if (days != null) {
+                    for (long amount : days.subMap(fromDay, true, toDay, true).values()) {
+                        sum += amount;
+                    }
+                }
+            }
+            if (category + 1 >= trees.length || trees[category + 1] == null || trees[category + 1][type] == null) return sum;
+            long[] tree = trees[category + 1][type];
+            int to = (int) (Math.max(Math.min(toDay, baseDay + capacity - 1), baseDay - 1) - baseDay) + 1;
+            int from = (int) (Math.min(Math.max(fromDay, baseDay), baseDay + capacity) - baseDay);
+            return to <= from ? sum : sum + prefix(tree, to) - prefix(tree, from);
+        }
+
+        private long prefix(long[] tree, int slot) {
+            long sum = 0;
+            for (int i = slot; i > 0; i -= i & -i) {
+                sum += tree[i];
+            }
+            return sum;
+        }
+
+        private long[] tree(short category, byte type) {
+            int index = category + 1;
+            if (index >= trees.length) {
+                trees = Arrays.copyOf(trees, Math.max(index + 1, trees.length * 2));
+            }
+            if (trees[index] == null) {
+                trees[index] = new long[2][];
+            }
+            if (trees[index][type] == null) {
+                trees[index][type] = new long[capacity + 1];
+            }
+            return trees[index][type];
+        }
+
+        private static boolean isTracked(byte type) {
+            return type == TransactionTable.INCOME || type == TransactionTable.EXPENSE;
+        }
+    }
+
+    // Collects dirty flags from any number of changes and applies them in a single FX-thread pass
+    static final class RefreshScheduler {
+        static final int STATS = 1;
+        static final int EXPENSE_CHART = 1 << 1;
+        static final int TREND_CHART = 1 << 2;
+        static final int RECENT = 1 << 3;
+        static final int TRANSACTIONS = 1 << 4;
+        static final int ALL = STATS | EXPENSE_CHART | TREND_CHART | RECENT | TRANSACTIONS;
+
+        private final java.util.function.IntConsumer flush;
+        private int dirty;
+        private boolean scheduled;
+
+        RefreshScheduler(java.util.function.IntConsumer flush) {
+            this.flush = flush;
+        }
+
+        // FX thread only; the flush runs once, after the current event has finished
+        void request(int components) {
+            dirty |= components;
+            if (!scheduled) {
+                scheduled = true;
+                Platform.runLater(this::run);
+            }
+        }
+
+        private void run() {
+            int components = dirty;
+            dirty = 0;
+            scheduled = false;
+            if (components != 0) {
+                flush.accept(components);
+            }
+        }
+    }
+
+    // The row indexes, built by the loader over its own copy of the table. The copy was filled in the same
+    // order as the FX table, so row ids and dictionary ids agree and the structures can be handed straight over
+    static final class LoadedIndexes {
+        final DateIndex dateIndex;
+        final DailyBalanceIndex balances;
+        final FilterIndex filters;
+        final TextIndex textIndex;
+
+        LoadedIndexes(TransactionTable table) {
+            dateIndex = new DateIndex(table);
+            dateIndex.rebuild();
+            balances = new DailyBalanceIndex(table);
+            balances.rebuild();
+            filters = new FilterIndex(table, dateIndex);
+            filters.reindex();
+            textIndex = new TextIndex(table);
+            textIndex.rebuild();
+        }
+    }
+
+    // What the background loader hands back once every snapshot row has been delivered
+    static final class LoadedData {
+        final TransactionJournal journal;
+        final List<TransactionJournal.Record> journalRecords;
+        // Row each journal DELETE removes, resolved while loading
+        final int[] deleteRows;
+        // Indexes for the table after the journal, or null when the FX thread has to build them
+        final LoadedIndexes indexes;
+        final boolean sampleData;
+        final boolean accumulated;
+        // Snapshots from before checksums, or ones recovery had to skip over, are written out again
+        final boolean rewrite;
+        // The files could not be read in full; what did arrive is shown but never written back over them
+        final boolean readOnly;
+        final List<String> losses;
+
+        LoadedData(TransactionJournal journal, List<TransactionJournal.Record> journalRecords, int[] deleteRows,
+                   LoadedIndexes indexes, boolean sampleData, boolean accumulated, boolean rewrite, boolean readOnly,
+                   List<String> losses) {
+            this.journal = journal;
+            this.journalRecords = journalRecords;
+            this.deleteRows = deleteRows;
+            this.indexes = indexes;
+            this.sampleData = sampleData;
+            this.accumulated = accumulated;
+            this.rewrite = rewrite;
+            this.readOnly = readOnly;
+            this.losses = losses;
+        }
+    }
+
+    // App-wide background work. Tasks run on virtual threads where the JDK has them (daemon platform
+    // threads otherwise), are timed, and hand their result to the FX thread through one path. Every task
+    // belongs to a scope, and cancelling a scope interrupts its tasks and drops their pending results.
+    // Lane tasks are writes and sign-ins; they are cancelled if still queued but never interrupted
+    static final class TaskRunner {
+        private static final long SLOW_TASK_MILLIS = 250;
+
+        private final ExecutorService general = newPerTaskExecutor();
+        private final Map<String, ExecutorService> lanes = new ConcurrentHashMap<>();
+
+        // Tasks on a lane share a fixed number of threads and a bounded queue; a full lane rejects
+        void addLane(String lane, int threads, int queueCapacity) {
+            BlockingQueue<Runnable> queue = queueCapacity == Integer.MAX_VALUE ?
+                    new LinkedBlockingQueue<>() : new ArrayBlockingQueue<>(queueCapacity);
+            lanes.put(lane, new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS, queue, threadFactory(lane)));
+        }
+
+        Scope newScope() {
+            return new Scope();
+        }
+
+        void shutdown() {
+            general.shutdownNow();
+            lanes.values().forEach(ExecutorService::shutdown);
+        }
+
+        final class Scope {
+            // Each running task, mapped to whether cancelling may interrupt it
+            private final Map<Future<?>, Boolean> running = new ConcurrentHashMap<>();
+            private volatile boolean cancelled;
+
+            <T> Future<?> submit(String name, Callable<T> work, java.util.function.Consumer<T> onSuccess,
+                                 java.util.function.Consumer<Throwable> onFailure) {
+                return submit(null, name, work, onSuccess, onFailure);
+            }
+
+            // Throws RejectedExecutionException when the lane's queue is full or the scope is cancelled
+            <T> Future<?> submit(String lane, String name, Callable<T> work, java.util.function.Consumer<T> onSuccess,
+                                 java.util.function.Consumer<Throwable> onFailure) {
+                if (cancelled) {
+                    throw new RejectedExecutionException("Scope cancelled");
+                }
+                ExecutorService executor = lane == null ? general : lanes.get(lane);
+                FutureTask<Void> task = new FutureTask<>(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        T result = work.call();
+                        post(() -> onSuccess.accept(result));
+                    } catch (InterruptedException | CancellationException e) {
+                        // Cancelled along with the scope; nobody is waiting for the result
+                    } catch (Throwable t) {
+                        post(() -> onFailure.accept(t));
+                    } finally {
+                        long millis = (System.nanoTime() - start) / 1_000_000;
+                        if (millis >= SLOW_TASK_MILLIS) {
+                            LOG.fine(() -> "Task " + name + " took " + millis + " ms");
+                        }
+                    }
+                    return null;
+                }) {
+                    @Override
+                    protected void done() {
+                        running.remove(this);
+                    }
+                };
+                running.put(task, lane == null);
+                executor.execute(task);
+                return task;
+            }
+
+            // The single hand-off from background work to the FX thread
+            void post(Runnable action) {
+                if (cancelled) return;
+                Platform.runLater(() -> {
+                    if (!cancelled) {
+                        action.run();
+                    }
+                });
+            }
+
+            boolean isCancelled() {
+                return cancelled;
+            }
+
+            void cancel() {
+                cancelled = true;
+                running.forEach((task, interruptible) -> task.cancel(interruptible));
+            }
+        }
+
+        private static ExecutorService newPerTaskExecutor() {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                return Executors.newCachedThreadPool(threadFactory("task"));
+            }
+        }
+
+        // Thread.ofVirtual() is looked up reflectively so the app still runs on JDKs without it
+        private static ThreadFactory threadFactory(String name) {
+            try {
+                Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+                return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                java.util.concurrent.atomic.AtomicInteger count = new java.util.concurrent.atomic.AtomicInteger();
+                return task -> {
+                    Thread thread = new Thread(task, name + "-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                };
+            }
+        }
+    }
+
+    // Salted PBKDF2 credentials stored as pbkdf2$<iterations>$<salt>$<hash>; the work factor comes from
+    // -Dfinanceflow.pbkdf2.iterations and older or plain-text credentials are reported for rehashing
+    static final class PasswordHasher {
+        private static final String PREFIX = "pbkdf2";
+        private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+        private static final int SALT_BYTES = 16;
+        private static final int KEY_BITS = 256;
+        static final int ITERATIONS = Integer.getInteger("financeflow.pbkdf2.iterations", 600_000);
+
+        private static final SecureRandom RANDOM = new SecureRandom();
+
+        private PasswordHasher() {}
+
+        static String hash(String password) {
+            byte[] salt = new byte[SALT_BYTES];
+            RANDOM.nextBytes(salt);
+            Base64.Encoder encoder = Base64.getEncoder();
+            return PREFIX + "$" + ITERATIONS + "$" + encoder.encodeToString(salt) + "$"
+                    + encoder.encodeToString(derive(password, salt, ITERATIONS));
+        }
+
+        static boolean verify(String password, String credential) {
+            String[] parts = credential.split("\\$");
+            if (parts.length != 4 || !PREFIX.equals(parts[0])) {
+                // Rows written before hashing hold the password itself
+                return MessageDigest.isEqual(credential.getBytes(java.nio.charset.StandardCharsets.UTF_8),
+                        password.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            }
+            try {
+                Base64.Decoder decoder = Base64.getDecoder();
+                byte[] expected = decoder.decode(parts[3]);
+                return MessageDigest.isEqual(expected, derive(password, decoder.decode(parts[2]), Integer.parseInt(parts[1])));
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+
+        static boolean needsRehash(String credential) {
+            return !credential.startsWith(PREFIX + "$" + ITERATIONS + "$");
+        }
+
+        private static byte[] derive(String password, byte[] salt, int iterations) {
+            javax.crypto.spec.PBEKeySpec spec = new javax.crypto.spec.PBEKeySpec(password.toCharArray(), salt, iterations, KEY_BITS);
+            try {
+                return javax.crypto.SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+            } catch (java.security.GeneralSecurityException e) {
+                throw new IllegalStateException(ALGORITHM + " unavailable", e);
+            } finally {
+                spec.clearPassword();
+            }
+        }
+    }
+
+    // Accounts.csv read once into a map keyed by user id; registrations go to the file and the map together.
+    // Hashing runs outside the lock so concurrent logins only queue for the map, not for each other
+    static final class AccountsService {
+        private static final String HEADER = "username,password,email,registration_date";
+
+        static final class Account {
+            final String userId;
+            final String credential;
+            final String email;
+            final String registeredAt;
+
+            Account(String userId, String credential, String email, String registeredAt) {
+                this.userId = userId;
+                this.credential = credential;
+                this.email = email;
+                this.registeredAt = registeredAt;
+            }
+
+            Account withCredential(String newCredential) {
+                return new Account(userId, newCredential, email, registeredAt);
+            }
+
+            String toCsvLine() {
+                return String.join(",", userId, credential, email, registeredAt);
+            }
+        }
+
+        private final java.nio.file.Path file;
+        private Map<String, Account> accounts;
+        // Passwords already verified this run, as a keyed SHA-256 tied to the credential they matched,
+        // so a repeat login skips the PBKDF2 work
+        private final Map<String, byte[]> verifiedSessions = new ConcurrentHashMap<>();
+        private final byte[] sessionKey = new byte[32];
+
+        AccountsService(java.nio.file.Path file) {
+            this.file = file;
+            new SecureRandom().nextBytes(sessionKey);
+        }
+
+        boolean authenticate(String userId, String password) throws IOException {
+            Account account;
+            synchronized (this) {
+                account = accounts().get(userId);
+            }
+            if (account == null) {
+                return false;
+            }
+
+            byte[] session = sessionDigest(account.credential, password);
+            byte[] verified = verifiedSessions.get(userId);
+            if (verified != null && MessageDigest.isEqual(verified, session)) {
+                return true;
+            }
+            if (!PasswordHasher.verify(password, account.credential)) {
+                return false;
+            }
+
+            if (PasswordHasher.needsRehash(account.credential)) {
+                Account upgraded = account.withCredential(PasswordHasher.hash(password));
+                if (replace(account, upgraded)) {
+                    session = sessionDigest(upgraded.credential, password);
+                }
+            }
+            verifiedSessions.put(userId, session);
+            return true;
+        }
+
+        // False when the user id is taken
+        boolean register(String userId, String password, String email, String registeredAt) throws IOException {
+            synchronized (this) {
+                if (accounts().containsKey(userId)) {
+                    return false;
+                }
+            }
+            Account account = new Account(userId, PasswordHasher.hash(password), email, registeredAt);
+            synchronized (this) {
+                // Someone may have taken the id while the hash was computed
+                if (accounts().containsKey(userId)) {
+                    return false;
+                }
+                Files.write(file, Arrays.asList(account.toCsvLine()), StandardOpenOption.APPEND);
+                accounts.put(userId, account);
+            }
+            return true;
+        }
+
+        // Swaps in a rehashed credential and rewrites the file in one atomic step
+        private synchronized boolean replace(Account current, Account upgraded) throws IOException {
+            if (accounts().get(current.userId) != current) {
+                return false;
+            }
+            accounts.put(current.userId, upgraded);
+
+            List<String> lines = new ArrayList<>(accounts.size() + 1);
+            lines.add(HEADER);
+            accounts.values().forEach(account -> lines.add(account.toCsvLine()));
+            java.nio.file.Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(temp, lines);
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        }
+
+        private byte[] sessionDigest(String credential, String password) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                digest.update(sessionKey);
+                digest.update(credential.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                return digest.digest(password.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            } catch (java.security.NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private Map<String, Account> accounts() throws IOException {
+            if (accounts == null) {
+                // Insertion order keeps rewrites in the file's original order
+                Map<String, Account> loaded = new LinkedHashMap<>();
+                List<String> lines = Files.readAllLines(file);
+                for (String line : lines.subList(Math.min(1, lines.size()), lines.size())) {
+                    String[] parts = line.split(",", -1);
+                    if (parts.length >= 2) {
+                        // The first row for a user id is the one that always matched
+                        loaded.putIfAbsent(parts[0], new Account(parts[0], parts[1],
+                                parts.length > 2 ? parts[2] : "", parts.length > 3 ? parts[3] : ""));
+                    }
+                }
+                accounts = loaded;
+            }
+            return accounts;
+        }
+    }
+
+    // Toasts on a permanent overlay above the scene content: one label and one timeline are reused,
+    // waiting toasts sit in a short queue, and repeats of the same toast are counted instead of queued
+    static final class NotificationCenter {
+        private static final int MAX_QUEUED = 5;
+        private static final Duration SHOWN = Duration.seconds(0.5);
+
+        private static final class Toast {
+            final String message;
+            final String color;
+            int count = 1;
+
+            Toast(String message, String color) {
+                this.message = message;
+                this.color = color;
+            }
+
+            boolean sameAs(String otherMessage, String otherColor) {
+                return message.equals(otherMessage) && color.equals(otherColor);
+            }
+
+            String text() {
+                return count == 1 ? message : message + " (×" + count + ")";
+            }
+        }
+
+        private final StackPane layer = new StackPane();
+        private final Label label = new Label();
+        private final Timeline timeline;
+        private final Deque<Toast> queue = new ArrayDeque<>();
+        private Toast current;
+
+        NotificationCenter() {
+            label.setTextFill(Color.WHITE);
+            label.setFont(Font.font("Segoe UI", FontWeight.BOLD, 14));
+            label.setPadding(new Insets(15, 25, 15, 25));
+            label.setVisible(false);
+            
+            layer.getChildren().add(label);
+            layer.setAlignment(Pos.TOP_CENTER);
+            layer.setPadding(new Insets(30));
+            layer.setMouseTransparent(true);
+            layer.setPickOnBounds(false);
+            
+            timeline = new Timeline(
+                new KeyFrame(Duration.ZERO, 
+                    new KeyValue(label.translateYProperty(), -100),
+                    new KeyValue(label.opacityProperty(), 0)),
+                new KeyFrame(SHOWN, 
+                    new KeyValue(label.translateYProperty(), 0),
+                    new KeyValue(label.opacityProperty(), 1)),
+                new KeyFrame(Duration.seconds(2.5), 
+                    new KeyValue(label.translateYProperty(), 0),
+                    new KeyValue(label.opacityProperty(), 1)),
+                new KeyFrame(Duration.seconds(3), 
+                    new KeyValue(label.translateYProperty(), -100),
+                    new KeyValue(label.opacityProperty(), 0))
+            );
+            timeline.setOnFinished(e -> showNext());
+        }
+
+        // Scene root for a stage scene: the content with the overlay on top
+        StackPane wrap(Parent content) {
+            return new StackPane(content, layer);
+        }
+
+        void show(String message, String color) {
+            if (current != null && current.sameAs(message, color)) {
+                current.count++;
+                label.setText(current.text());
+                // Keep a repeated toast on screen for another full hold
+                if (timeline.getCurrentTime().greaterThan(SHOWN)) {
+                    timeline.jumpTo(SHOWN);
+                }
+                return;
+            }
+            Toast last = queue.peekLast();
+            if (last != null && last.sameAs(message, color)) {
+                last.count++;
+                return;
+            }
+            if (queue.size() == MAX_QUEUED) {
+                queue.pollFirst();
+            }
+            queue.addLast(new Toast(message, color));
+            if (current == null) {
+                showNext();
+            }
+        }
+
+        private void showNext() {
+            current = queue.pollFirst();
+            if (current == null) {
+                label.setVisible(false);
+                return;
+            }
+            label.setText(current.text());
+            label.setStyle("-fx-background-color: " + current.color + "; " +
+                          "-fx-background-radius: 25; " +
+                          "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.3), 10, 0, 0, 5);");
+            label.setVisible(true);
+            timeline.playFromStart();
+        }
+    }
+
+    // Owns every indefinite animation: all of them pause while the window is minimised or unfocused,
+    // and each one is stopped for good once its owner node leaves the stage's current scene
+    static final class AnimationRegistry {
+        private static final class Entry {
+            final Node owner;
+            final Runnable play, pause, stop;
+
+            Entry(Node owner, Runnable play, Runnable pause, Runnable stop) {
+                this.owner = owner;
+                this.play = play;
+                this.pause = pause;
+                this.stop = stop;
+            }
+        }
+
+        private final Stage stage;
+        private final Map<Object, Entry> entries = new IdentityHashMap<>();
+        private final javafx.beans.property.ReadOnlyIntegerWrapper liveCount =
+                new javafx.beans.property.ReadOnlyIntegerWrapper();
+        private boolean paused;
+
+        AnimationRegistry(Stage stage) {
+            this.stage = stage;
+            stage.iconifiedProperty().addListener((obs, oldValue, newValue) -> updatePaused());
+            stage.focusedProperty().addListener((obs, oldValue, newValue) -> updatePaused());
+            stage.sceneProperty().addListener((obs, oldScene, newScene) -> sweep());
+        }
+
+        void play(Node owner, Animation animation) {
+            add(animation, new Entry(owner, animation::play, animation::pause, animation::stop));
+        }
+
+        void play(Node owner, AnimationTimer timer) {
+            add(timer, new Entry(owner, timer::start, timer::stop, timer::stop));
+        }
+
+        // For animations their owner ends early, such as a button pulse
+        void stop(Object animation) {
+            Entry entry = entries.remove(animation);
+            if (entry != null) {
+                entry.stop.run();
+                liveCount.set(entries.size());
+            }
+        }
+
+        javafx.beans.property.ReadOnlyIntegerProperty liveCountProperty() {
+            return liveCount.getReadOnlyProperty();
+        }
+
+        private void add(Object animation, Entry entry) {
+            entries.put(animation, entry);
+            liveCount.set(entries.size());
+            entry.owner.sceneProperty().addListener(new ChangeListener<Scene>() {
+                @Override
+                public void changed(ObservableValue<? extends Scene> obs, Scene oldScene, Scene newScene) {
+                    // Re-parenting detaches a node for a moment, so only an owner still detached later is gone
+                    if (newScene == null) {
+                        Platform.runLater(() -> {
+                            if (entry.owner.getScene() == null) {
+                                obs.removeListener(this);
+                                stop(animation);
+                            }
+                        });
+                    }
+                }
+            });
+            if (!paused) {
+                entry.play.run();
+            }
+        }
+
+        private void updatePaused() {
+            boolean shouldPause = stage.isIconified() || !stage.isFocused();
+            if (shouldPause != paused) {
+                paused = shouldPause;
+                for (Entry entry : entries.values()) {
+                    (paused ? entry.pause : entry.play).run();
+                }
+            }
+        }
+
+        // A replaced scene keeps its nodes, so owners are also checked against the stage's scene
+        private void sweep() {
+            for (Object animation : new ArrayList<>(entries.keySet())) {
+                Entry entry = entries.get(animation);
+                if (entry.owner.getScene() == null || entry.owner.getScene() != stage.getScene()) {
+                    stop(animation);
+                }
+            }
+        }
+    }
+
+    // Login background particles drawn on one canvas from one AnimationTimer; particle state lives
+    // in primitive arrays and the active count backs off when frames run long
+    static final class ParticleField {
+        private static final int MAX_PARTICLES = 50;
+        private static final int MIN_PARTICLES = 10;
+        private static final double SLOW_FRAME_NANOS = 20_000_000;
+        private static final double FAST_FRAME_NANOS = 17_500_000;
+        private static final long RESUME_GAP_NANOS = 250_000_000;
+
+        private final Pane pane = new Pane();
+        private final Canvas canvas = new Canvas();
+        // Positions are fractions of the canvas size, so the field fills any window
+        private final double[] x = new double[MAX_PARTICLES];
+        private final double[] y = new double[MAX_PARTICLES];
+        private final double[] radius = new double[MAX_PARTICLES];
+        private final double[] alpha = new double[MAX_PARTICLES];
+        private final double[] rise = new double[MAX_PARTICLES];
+        private final double[] period = new double[MAX_PARTICLES];
+        private int active = MAX_PARTICLES;
+        private long startNanos = -1;
+        private long lastNanos;
+        private double frameNanos = FAST_FRAME_NANOS;
+
+        private final AnimationTimer timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                render(now);
+            }
+        };
+
+        ParticleField() {
+            Random random = new Random();
+            for (int i = 0; i < MAX_PARTICLES; i++) {
+                radius[i] = random.nextDouble() * 3 + 1;
+                alpha[i] = 0.1 + random.nextDouble() * 0.2;
+                x[i] = random.nextDouble();
+                y[i] = random.nextDouble();
+                rise[i] = 50 + random.nextDouble() * 100;
+                period[i] = 10 + random.nextDouble() * 10;
+            }
+            pane.setMouseTransparent(true);
+            canvas.widthProperty().bind(pane.widthProperty());
+            canvas.heightProperty().bind(pane.heightProperty());
+            pane.getChildren().add(canvas);
+        }
+
+        Pane node() { return pane; }
+        AnimationTimer timer() { return timer; }
+        int activeCount() { return active; }
+
+        void dispose() {
+            timer.stop();
+            pane.getChildren().clear();
+        }
+
+        private void render(long now) {
+            if (startNanos < 0) {
+                startNanos = now;
+            } else if (now - lastNanos < RESUME_GAP_NANOS) {
+                // A longer gap means the timer was paused, which says nothing about rendering cost
+                frameNanos = frameNanos * 0.9 + (now - lastNanos) * 0.1;
+                if (frameNanos > SLOW_FRAME_NANOS && active > MIN_PARTICLES) {
+                    active = Math.max(MIN_PARTICLES, active * 9 / 10);
+                    frameNanos = FAST_FRAME_NANOS;
+                } else if (frameNanos < FAST_FRAME_NANOS && active < MAX_PARTICLES) {
+                    active++;
+                }
+            }
+            lastNanos = now;
+
+            double width = canvas.getWidth();
+            double height = canvas.getHeight();
+            double seconds = (now - startNanos) / 1e9;
+            GraphicsContext g = canvas.getGraphicsContext2D();
+            g.clearRect(0, 0, width, height);
+            g.setFill(Color.WHITE);
+            for (int i = 0; i < active; i++) {
+                // Rise and fall linearly, like an auto-reversing timeline
+                double phase = (seconds / period[i]) % 2;
+                double offset = rise[i] * (phase < 1 ? phase : 2 - phase);
+                double r = radius[i];
+                g.setGlobalAlpha(alpha[i]);
+                g.fillOval(x[i] * width - r, y[i] * height - offset - r, r * 2, r * 2);
+            }
+            g.setGlobalAlpha(1);
+        }
+    }
+
+    // Pie slices keyed by category, so an update only touches the slices whose amount changed
+    // and adds or removes slices only when a category appears or disappears
+    static final class PieChartModel {
+        private final PieChart chart;
+        private final String emptyLabel;
+        private final Map<String, PieChart.Data> slices = new HashMap<>();
+        private PieChart.Data placeholder;
+
+        PieChartModel(PieChart chart, String emptyLabel) {
+            this.chart = chart;
+            this.emptyLabel = emptyLabel;
+        }
+
+        void update(Map<String, Double> amounts) {
+            if (amounts.isEmpty()) {
+                if (placeholder == null) {
+                    chart.getData().clear();
+                    slices.clear();
+                    placeholder = new PieChart.Data(emptyLabel, 1);
+                    chart.getData().add(placeholder);
+                }
+                return;
+            }
+            if (placeholder != null) {
+                chart.getData().remove(placeholder);
+                placeholder = null;
+            }
+
+            slices.entrySet().removeIf(entry -> {
+                if (amounts.containsKey(entry.getKey())) {
+                    return false;
+                }
+                chart.getData().remove(entry.getValue());
+                return true;
+            });
+            amounts.forEach((category, amount) -> {
+                String name = category + " (₹" + String.format("%.0f", amount) + ")";
+                PieChart.Data slice = slices.get(category);
+                if (slice == null) {
+                    slice = new PieChart.Data(name, amount);
+                    slices.put(category, slice);
+                    chart.getData().add(slice);
+                } else {
+                    if (slice.getPieValue() != amount) {
+                        slice.setPieValue(amount);
+                    }
+                    if (!name.equals(slice.getName())) {
+                        slice.setName(name);
+                    }
+                }
+            });
+        }
+    }
+
+    // In-place updates for category-axis series: points are matched by position and only
+    // changed x or y values are set, so unchanged points keep their nodes and animations
+    static final class SeriesSync {
+        private SeriesSync() {}
+
+        static XYChart.Series<String, Number> series(XYChart<String, Number> chart, int index, String name) {
+            while (chart.getData().size() <= index) {
+                XYChart.Series<String, Number> series = new XYChart.Series<>();
+                chart.getData().add(series);
+            }
+            XYChart.Series<String, Number> series = chart.getData().get(index);
+            if (!name.equals(series.getName())) {
+                series.setName(name);
+            }
+            return series;
+        }
+
+        static void points(XYChart.Series<String, Number> series, List<String> labels, double[] values) {
+            ObservableList<XYChart.Data<String, Number>> data = series.getData();
+            if (data.size() > labels.size()) {
+                data.remove(labels.size(), data.size());
+            }
+            for (int i = 0; i < labels.size(); i++) {
+                if (i == data.size()) {
+                    data.add(new XYChart.Data<>(labels.get(i), values[i]));
+                    continue;
+                }
+                XYChart.Data<String, Number> point = data.get(i);
+                if (!labels.get(i).equals(point.getXValue())) {
+                    point.setXValue(labels.get(i));
+                }
+                if (point.getYValue() == null || point.getYValue().doubleValue() != values[i]) {
+                    point.setYValue(values[i]);
+                }
+            }
+        }
+    }
+
+    // A tab built once per session; refresh pushes the current model into its existing nodes
+    static final class TabView {
+        final Node root;
+        private final Runnable refresh;
+        private long version = -1;
+        private long day;
+
+        TabView(Node root, Runnable refresh) {
+            this.root = root;
+            this.refresh = refresh;
+        }
+
+        // Period figures are relative to today, so a new day makes a view stale even without edits
+        void refreshIfStale(long dataVersion, long epochDay) {
+            if (version != dataVersion || day != epochDay) {
+                version = dataVersion;
+                day = epochDay;
+                refresh.run();
+            }
+        }
+    }
+
+    // ObservableList over a primitive array of row ids; a row id is only boxed when a cell asks for it
+    static final class RowIdList extends ObservableListBase<Integer> {
+        private int[] rows = new int[0];
+        private int size;
+
+        // Fires only the span between the common head and tail, so a one-row edit is a one-row change and
+        // an unchanged result fires nothing
+        void setRows(int[] newRows, int newSize) {
+            int[] oldRows = rows;
+            int oldSize = size;
+            int head = 0;
+            int limit = Math.min(oldSize, newSize);
+            while (head < limit && oldRows[head] == newRows[head]) {
+                head++;
+            }
+            int tail = 0;
+            while (tail < limit - head && oldRows[oldSize - 1 - tail] == newRows[newSize - 1 - tail]) {
+                tail++;
+            }
+            rows = newRows;
+            size = newSize;
+            if (head == oldSize && head == newSize) {
+                return;
+            }
+
+            int removedEnd = oldSize - tail;
+            int addedEnd = newSize - tail;
+            beginChange();
+            if (removedEnd > head) {
+                int from = head;
+                nextRemove(head, new AbstractList<Integer>() {
+                    @Override public Integer get(int index) { return oldRows[from + index]; }
+                    @Override public int size() { return removedEnd - from; }
+                });
+            }
+            if (addedEnd > head) {
+                nextAdd(head, addedEnd);
+            }
+            endChange();
+        }
+
+        @Override
+        public Integer get(int index) {
+            Objects.checkIndex(index, size);
+            return rows[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    // Pre-aggregated amounts keyed by (period, category, type) at day, month and year level.
+    // Every row also lands in an all-categories cell, so uncategorised queries never fan out.
+    static final class RollupCube {
+        static final short ALL_CATEGORIES = -1;
+        private static final int MAGIC = 0x46464342; // "FFCB"
+        private static final int VERSION = 1;
+        private static final int DAY = 0;
+        private static final int MONTH = 1;
+        private static final int YEAR = 2;
+
+        private final Map<Long, long[]> cells = new HashMap<>();
+        private long minDay = Long.MAX_VALUE;
+        private long maxDay = Long.MIN_VALUE;
+
+        void clear() {
+            cells.clear();
+            minDay = Long.MAX_VALUE;
+            maxDay = Long.MIN_VALUE;
+        }
+
+        void add(TransactionTable table, int row, int sign) {
+            add(table.epochDay(row), table.categoryId(row), table.type(row), sign * table.amount(row));
+        }
+
+        private void add(long epochDay, short category, byte type, long amount) {
+            LocalDate date = LocalDate.ofEpochDay(epochDay);
+            long[] periods = { epochDay, monthIndex(date), date.getYear() };
+            for (int level = DAY; level <= YEAR; level++) {
+                addCell(level, periods[level], category, type, amount);
+                addCell(level, periods[level], ALL_CATEGORIES, type, amount);
+            }
+            minDay = Math.min(minDay, epochDay);
+            maxDay = Math.max(maxDay, epochDay);
+        }
+
+        private void addCell(int level, long period, short category, byte type, long amount) {
+            cells.computeIfAbsent(key(level, period, category, type), k -> new long[1])[0] += amount;
+        }
+
+        private long cell(int level, long period, short category, byte type) {
+            long[] value = cells.get(key(level, period, category, type));
+            return value == null ? 0 : value[0];
+        }
+
+        // Sum over [fromDay, toDay]: loose days up to a month edge, loose months up to a year edge, then whole years
+        long sum(byte type, short category, long fromDay, long toDay) {
+            long from = Math.max(fromDay, minDay);
+            long to = Math.min(toDay, maxDay);
+            long total = 0;
+
+            while (from <= to) {
+                LocalDate date = LocalDate.ofEpochDay(from);
+                if (date.getDayOfYear() == 1 && date.plusYears(1).toEpochDay() - 1 <= to) {
+                    total += cell(YEAR, date.getYear(), category, type);
+                    from = date.plusYears(1).toEpochDay();
+                } else if (date.getDayOfMonth() == 1 && date.plusMonths(1).toEpochDay() - 1 <= to) {
+                    total += cell(MONTH, monthIndex(date), category, type);
+                    from = date.plusMonths(1).toEpochDay();
+                } else {
+                    total += cell(DAY, from, category, type);
+                    from++;
+                }
+            }
+            return total;
+        }
+
+        // Category ids only live as long as the table, so the file stores category names
+        void save(java.nio.file.Path file, String storageStamp, TransactionTable table) throws IOException {
+            java.nio.file.Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(storageStamp);
+                out.writeInt(table.categoryCount());
+                for (short id = 0; id < table.categoryCount(); id++) {
+                    out.writeUTF(table.categoryName(id));
+                }
+                out.writeInt(cells.size());
+                for (Map.Entry<Long, long[]> entry : cells.entrySet()) {
+                    out.writeLong(entry.getKey());
+                    out.writeLong(entry.getValue()[0]);
+                }
+            }
+            // Swapped in whole, so a cube whose stamp matches the user files is never half written
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        // Whether the saved cube was written for these storage files, without loading it
+        static boolean matches(java.nio.file.Path file, String storageStamp) {
+            if (!Files.exists(file)) return false;
+
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                return in.readInt() == MAGIC && in.readInt() == VERSION && in.readUTF().equals(storageStamp);
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        boolean load(java.nio.file.Path file, String storageStamp, TransactionTable table) {
+            clear();
+            if (!Files.exists(file)) return false;
+
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION || !in.readUTF().equals(storageStamp)) {
+                    return false;
+                }
+
+                short[] categoryIds = new short[in.readInt()];
+                for (int i = 0; i < categoryIds.length; i++) {
+                    Short id = table.categoryIdOf(in.readUTF());
+                    categoryIds[i] = id == null ? ALL_CATEGORIES : id;
+                }
+
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    long key = in.readLong();
+                    long amount = in.readLong();
+                    short category = (short) (key >> 8);
+                    if (category != ALL_CATEGORIES) {
+                        // A category the table no longer knows means the cube is out of date
+                        if (category >= categoryIds.length || categoryIds[category] == ALL_CATEGORIES) {
+                            clear();
+                            return false;
+                        }
+                        key = (key & ~0xFFFF00L) | ((categoryIds[category] & 0xFFFFL) << 8);
+                    }
+                    cells.put(key, new long[] { amount });
+                    if ((int) (key >>> 62) == DAY) {
+                        long day = (key << 2) >> 26;
+                        minDay = Math.min(minDay, day);
+                        maxDay = Math.max(maxDay, day);
+                    }
+                }
+                return true;
+            } catch (IOException | RuntimeException e) {
+                clear();
+                return false;
+            }
+        }
+
+        // level:2 | period:38 (signed) | category:16 | type:8
+        private static long key(int level, long period, short category, byte type) {
+            return ((long) level << 62) | ((period & 0x3FFFFFFFFFL) << 24) | ((category & 0xFFFFL) << 8) | (type & 0xFFL);
+        }
+
+        private static long monthIndex(LocalDate date) {
+            return date.getYear() * 12L + date.getMonthValue() - 1;
+        }
+    }
+
+    // Immutable set of figures that every Analytics and Budget card and chart reads from
+    static final class AnalyticsSnapshot {
+        static final int TREND_MONTHS = 6;
+
+        private final LocalDate today;
+        private final double monthlyIncome;
+        private final double monthlyExpenses;
+        private final double weeklyIncome;
+        private final double weeklyExpenses;
+        private final double[] trendExpenses;
+        private final Map<String, Double> categoryExpenses;
+
+        AnalyticsSnapshot(LocalDate today, long[] month, long[] week, long[] trendExpenses, Map<String, Double> categoryExpenses) {
+            this.today = today;
+            this.monthlyIncome = TransactionTable.toAmount(month[TransactionTable.INCOME]);
+            this.monthlyExpenses = TransactionTable.toAmount(month[TransactionTable.EXPENSE]);
+            this.weeklyIncome = TransactionTable.toAmount(week[TransactionTable.INCOME]);
+            this.weeklyExpenses = TransactionTable.toAmount(week[TransactionTable.EXPENSE]);
+            this.trendExpenses = new double[trendExpenses.length];
+            for (int i = 0; i < trendExpenses.length; i++) {
+                this.trendExpenses[i] = TransactionTable.toAmount(trendExpenses[i]);
+            }
+            this.categoryExpenses = Collections.unmodifiableMap(new LinkedHashMap<>(categoryExpenses));
+        }
+
+        double monthlyIncome() { return monthlyIncome; }
+        double monthlyExpenses() { return monthlyExpenses; }
+        double weeklyIncome() { return weeklyIncome; }
+        double weeklyExpenses() { return weeklyExpenses; }
+        Map<String, Double> categoryExpenses() { return categoryExpenses; }
+
+        // Month-to-date expenses spread over the days elapsed this month
+        double dailyAverage() {
+            return monthlyExpenses / today.getDayOfMonth();
+        }
+
+        // Oldest month first, ending with the current month
+        LocalDate trendMonth(int index) { return today.minusMonths(TREND_MONTHS - 1 - index); }
+        double trendExpense(int index) { return trendExpenses[index]; }
+    }
+
+    // Append-only log of changes made since the last snapshot of <user>.csv
+    static final class TransactionJournal {
+        static final char ADD = 'A';
+        static final char DELETE = 'D';
+        static final int COMPACT_THRESHOLD = 1000;
+
+        private final java.nio.file.Path file;
+        private final java.util.zip.CRC32C crc = new java.util.zip.CRC32C();
+        private int recordCount;
+        // Generation of the snapshot the journal's records apply on top of
+        private long generation;
+        private boolean legacy;
+
+        TransactionJournal(java.nio.file.Path file) {
+            this.file = file;
+        }
+
+        // One write for the whole batch; with sync the records are on disk before this returns
+        void append(List<String> records, boolean sync) throws IOException {
+            try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                 OutputStream out = new BufferedOutputStream(java.nio.channels.Channels.newOutputStream(channel))) {
+                if (channel.size() == 0) {
+                    ChecksummedLines.writeHeader(out, generation);
+                }
+                for (String record : records) {
+                    ChecksummedLines.writeRecord(out, record, crc);
+                }
+                out.flush();
+                if (sync) {
+                    channel.force(true);
+                }
+            }
+            recordCount += records.size();
+        }
+
+        static final class Record {
+            final char op;
+            final Transaction transaction;
+
+            Record(char op, Transaction transaction) {
+                this.op = op;
+                this.transaction = transaction;
+            }
+        }
+
+        // Parses every record, in the order they were written; applying them is left to the caller so the
+        // parsing can run off the FX thread. A damaged tail is cut off at the last record that verified, and
+        // a journal written for another snapshot is moved aside, since after a snapshot was set aside as corrupt
+        // it may be the only copy of the latest edits; what was lost is added to losses
+        List<Record> read(long snapshotGeneration, List<String> losses) throws IOException {
+            generation = snapshotGeneration;
+            recordCount = 0;
+            legacy = false;
+            List<Record> records = new ArrayList<>();
+            if (!Files.exists(file)) {
+                return records;
+            }
+
+            TransactionCsvReader.Scan scan = TransactionCsvReader.read(file, false, true, true,
+                    (op, transaction) -> records.add(new Record(op, transaction)));
+            if (scan.checksummed && scan.generation != snapshotGeneration) {
+                java.nio.file.Path setAside = file.resolveSibling(file.getFileName() + ".stale");
+                Files.move(file, setAside, StandardCopyOption.REPLACE_EXISTING);
+                losses.add(records.size() + " journal entries written for another snapshot were not applied and were moved to "
+                        + setAside.getFileName());
+                return new ArrayList<>();
+            }
+            if (scan.stopped) {
+                try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(scan.validLength);
+                }
+                losses.add(scan.lostRecords + " damaged journal entries were dropped after the last intact one");
+            } else if (scan.lostRecords > 0) {
+                losses.add(scan.lostRecords + " unreadable journal entries were skipped");
+            }
+            recordCount = records.size();
+            legacy = !scan.checksummed && recordCount > 0;
+            return records;
+        }
+
+        // Journals from before checksums are folded into a snapshot so new records never follow them
+        boolean needsCompaction() {
+            return legacy || recordCount >= COMPACT_THRESHOLD;
+        }
+
+        int recordCount() {
+            return recordCount;
+        }
+
+        void clear() throws IOException {
+            Files.deleteIfExists(file);
+            recordCount = 0;
+            legacy = false;
+        }
+
+        // Empties the journal after a new snapshot; later records are written against its generation
+        void reset(long snapshotGeneration) throws IOException {
+            clear();
+            generation = snapshotGeneration;
+        }
+    }
+
+    // Works out, on the loader thread, which row each journal DELETE removes, so replay on the FX thread
+    // never searches the table. Rows are known by a hash of their values and checked again on replay
+    static final class DeleteResolver {
+        private long[] hashes = new long[1024];
+        private int size;
+
+        // Snapshot rows, in the order they become table rows
+        void add(long hash) {
+            if (size == hashes.length) {
+                hashes = Arrays.copyOf(hashes, size * 2);
+            }
+            hashes[size++] = hash;
+        }
+
+        // Row removed by each DELETE record, or -1 for ADD records and for deletes with no match
+        int[] resolve(List<TransactionJournal.Record> records) {
+            int[] resolved = new int[records.size()];
+            Arrays.fill(resolved, -1);
+            Set<Long> deleted = new HashSet<>();
+            for (TransactionJournal.Record record : records) {
+                if (record.op == TransactionJournal.DELETE) {
+                    deleted.add(TransactionTable.valueHash(record.transaction));
+                }
+            }
+            if (deleted.isEmpty()) {
+                return resolved;
+            }
+
+            // Replayed ADD records become rows too, and later records may delete them
+            int snapshotRows = size;
+            for (TransactionJournal.Record record : records) {
+                if (record.op == TransactionJournal.ADD) {
+                    add(TransactionTable.valueHash(record.transaction));
+                }
+            }
+            Map<Long, List<Integer>> candidates = new HashMap<>();
+            for (int row = 0; row < size; row++) {
+                if (deleted.contains(hashes[row])) {
+                    candidates.computeIfAbsent(hashes[row], key -> new ArrayList<>()).add(row);
+                }
+            }
+
+            BitSet removed = new BitSet();
+            int nextRow = snapshotRows;
+            for (int i = 0; i < records.size(); i++) {
+                TransactionJournal.Record record = records.get(i);
+                if (record.op == TransactionJournal.ADD) {
+                    nextRow++;
+                } else if (record.op == TransactionJournal.DELETE) {
+                    // Like TransactionTable.find: the latest matching row that exists at this point
+                    List<Integer> rows = candidates.getOrDefault(TransactionTable.valueHash(record.transaction),
+                            Collections.emptyList());
+                    for (int k = rows.size() - 1; k >= 0; k--) {
+                        int row = rows.get(k);
+                        if (row < nextRow && !removed.get(row)) {
+                            removed.set(row);
+                            resolved[i] = row;
+                            break;
+                        }
+                    }
+                }
+            }
+            return resolved;
+        }
+    }
+
+    // Batches one user's journal records and snapshots and writes them on a serial lane. The first change
+    // opens a window (-Dfinanceflow.persist.window, in ms) and everything arriving in it goes out as one
+    // append. Batches are fsynced as they are written unless -Dfinanceflow.durability=close defers it to close();
+    // snapshots are always fsynced, since they delete the journal
+    static final class PersistenceWriter {
+        enum Durability { BATCH, ON_CLOSE }
+
+        static final Duration WINDOW = Duration.millis(Long.getLong("financeflow.persist.window", 250));
+        static final Durability DURABILITY = "close".equalsIgnoreCase(System.getProperty("financeflow.durability")) ?
+                Durability.ON_CLOSE : Durability.BATCH;
+
+        private final String userId;
+        private final TransactionJournal journal;
+        private final TaskRunner.Scope scope;
+        private final String lane;
+        private final java.util.function.Supplier<TransactionTable> source;
+        private final java.util.function.Consumer<Throwable> onFailure;
+        private final PauseTransition window = new PauseTransition(WINDOW);
+
+        // FX thread only
+        private List<String> pendingRecords = new ArrayList<>();
+        private TransactionTable pendingSnapshot;
+        private int journalRecords;
+        private boolean snapshotNeeded;
+        private Future<?> lastWrite;
+
+        // Lane thread only
+        private boolean unsynced;
+
+        PersistenceWriter(String userId, TransactionJournal journal, TaskRunner.Scope scope, String lane,
+                          java.util.function.Supplier<TransactionTable> source,
+                          java.util.function.Consumer<Throwable> onFailure) {
+            this.userId = userId;
+            this.journal = journal;
+            this.scope = scope;
+            this.lane = lane;
+            this.source = source;
+            this.onFailure = onFailure;
+            this.journalRecords = journal.recordCount();
+            window.setOnFinished(e -> submit(false, null));
+        }
+
+        void append(char op, Transaction transaction) {
+            pendingRecords.add(op + "," + toCsvLine(transaction));
+            if (snapshotNeeded || ++journalRecords >= TransactionJournal.COMPACT_THRESHOLD) {
+                snapshot();
+            } else if (window.getStatus() != Animation.Status.RUNNING) {
+                window.playFromStart();
+            }
+        }
+
+        // Replaces the snapshot and empties the journal. The table is copied now, so later edits only go
+        // to the new journal and records still waiting for the window are already part of the copy
+        void snapshot() {
+            pendingSnapshot = source.get();
+            pendingRecords.clear();
+            journalRecords = 0;
+            snapshotNeeded = false;
+            if (window.getStatus() != Animation.Status.RUNNING) {
+                window.playFromStart();
+            }
+        }
+
+        // Writes whatever is pending, then runs whenWritten on the FX thread, whether or not the write worked
+        void close(Runnable whenWritten) {
+            if (snapshotNeeded) {
+                snapshot();
+            }
+            submit(true, whenWritten);
+        }
+
+        // Writes whatever is pending and waits for it; called on exit, when the FX thread has nothing left to do
+        void close() {
+            if (snapshotNeeded) {
+                snapshot();
+            }
+            submit(true, null);
+            if (lastWrite != null) {
+                try {
+                    lastWrite.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException | CancellationException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        private void submit(boolean closing, Runnable whenWritten) {
+            window.stop();
+            if (pendingSnapshot == null && pendingRecords.isEmpty() && !closing) return;
+            TransactionTable snapshot = pendingSnapshot;
+            List<String> records = pendingRecords;
+            pendingSnapshot = null;
+            pendingRecords = new ArrayList<>();
+            Runnable then = whenWritten == null ? () -> { } : whenWritten;
+            lastWrite = scope.submit(lane, "persist " + userId, () -> {
+                write(snapshot, records, closing);
+                return null;
+            }, done -> then.run(), error -> {
+                failed(error);
+                then.run();
+            });
+        }
+
+        private void write(TransactionTable snapshot, List<String> records, boolean closing) throws IOException {
+            boolean sync = DURABILITY == Durability.BATCH;
+            try {
+                if (snapshot != null) {
+                    // A journal left with an older generation is recognised as stale if this stops halfway.
+                    // The snapshot and its rename are forced before the journal goes, in either durability
+                    // mode, so a power cut can never keep the deletion but lose the new snapshot. Snapshots
+                    // are rare, so the extra syncs cost little
+                    long generation = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+                    writeSnapshot(userId, snapshot, generation, true);
+                    forceDirectory(userFile(userId, ".journal").getParent());
+                    journal.reset(generation);
+                }
+                if (!records.isEmpty()) {
+                    journal.append(records, sync);
+                }
+                unsynced |= !sync;
+                if (closing && unsynced) {
+                    for (String extension : new String[] {".csv", ".fcol", ".journal"}) {
+                        force(userFile(userId, extension));
+                    }
+                    forceDirectory(userFile(userId, ".journal").getParent());
+                    unsynced = false;
+                }
+            } catch (IOException e) {
+                // Also logged here because a failure while closing is never posted back
+                e.printStackTrace();
+                throw e;
+            }
+        }
+
+        // A batch may be half on disk, so the next write replaces everything with a full snapshot
+        private void failed(Throwable error) {
+            snapshotNeeded = true;
+            onFailure.accept(error);
+        }
+
+        static void writeSnapshot(String userId, TransactionTable table, long generation, boolean sync) throws IOException {
+            java.nio.file.Path binaryFile = userFile(userId, ".fcol");
+            Files.createDirectories(binaryFile.getParent());
+            if (BINARY_STORE) {
+                ColumnarTransactionStore.write(binaryFile, table, generation, sync);
+                return;
+            }
+            
+            java.nio.file.Path csvFile = userFile(userId, ".csv");
+            java.nio.file.Path temp = csvFile.resolveSibling(csvFile.getFileName() + ".tmp");
+            try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(temp,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 OutputStream out = new BufferedOutputStream(java.nio.channels.Channels.newOutputStream(channel), 1 << 16)) {
+                java.util.zip.CRC32C crc = new java.util.zip.CRC32C();
+                ChecksummedLines.writeHeader(out, generation);
+                for (int row = 0; row < table.size(); row++) {
+                    if (table.isLive(row)) {
+                        ChecksummedLines.writeRecord(out, toCsvLine(table.get(row)), crc);
+                    }
+                }
+                out.flush();
+                if (sync) {
+                    channel.force(true);
+                }
+            }
+            Files.move(temp, csvFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            // The CSV is now the newest snapshot
+            Files.deleteIfExists(binaryFile);
+        }
+
+        private static void force(java.nio.file.Path file) throws IOException {
+            if (Files.exists(file)) {
+                try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.force(true);
+                }
+            }
+        }
+
+        // Persists renames and deletes in the folder; platforms that cannot open a directory (Windows) skip it
+        private static void forceDirectory(java.nio.file.Path folder) {
+            try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(folder, StandardOpenOption.READ)) {
+                channel.force(true);
+            } catch (IOException e) {
+                // Best effort only
+            }
+        }
+    }
+
+    // Line format shared by the snapshot CSV and the journal: a "#financeflow,2,<generation>" header naming
+    // the snapshot the file belongs to, then one record per line ending in ",<crc32c of the rest of the line>"
+    static final class ChecksummedLines {
+        static final String HEADER_PREFIX = "#financeflow,2,";
+        private static final byte[] HEADER_BYTES = HEADER_PREFIX.getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+        private static final byte[] HEX = "0123456789abcdef".getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+        private static final int CHECKSUM_LENGTH = 9;
+
+        static void writeHeader(OutputStream out, long generation) throws IOException {
+            out.write(HEADER_BYTES);
+            out.write(Long.toHexString(generation).getBytes(java.nio.charset.StandardCharsets.US_ASCII));
+            out.write('\n');
+        }
+
+        static void writeRecord(OutputStream out, String record, java.util.zip.CRC32C crc) throws IOException {
+            byte[] bytes = record.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+            crc.reset();
+            crc.update(bytes, 0, bytes.length);
+            int value = (int) crc.getValue();
+            out.write(bytes);
+            out.write(',');
+            for (int shift = 28; shift >= 0; shift -= 4) {
+                out.write(HEX[(value >>> shift) & 0xF]);
+            }
+            out.write('\n');
+        }
+
+        static boolean isHeader(byte[] buf, int start, int end) {
+            return end - start > HEADER_BYTES.length
+                    && Arrays.equals(buf, start, start + HEADER_BYTES.length, HEADER_BYTES, 0, HEADER_BYTES.length);
+        }
+
+        static long generation(byte[] buf, int start, int end) {
+            int from = start + HEADER_BYTES.length;
+            return Long.parseUnsignedLong(new String(buf, from, end - from, java.nio.charset.StandardCharsets.US_ASCII), 16);
+        }
+
+        // End of the record without its checksum, or -1 when the checksum is missing or does not match
+        static int verify(byte[] buf, int start, int end, java.util.zip.CRC32C crc) {
+            int recordEnd = end - CHECKSUM_LENGTH;
+            if (recordEnd < start || buf[recordEnd] != ',') return -1;
+            int expected = 0;
+            for (int i = recordEnd + 1; i < end; i++) {
+                int digit = Character.digit(buf[i], 16);
+                if (digit < 0) return -1;
+                expected = expected << 4 | digit;
+            }
+            crc.reset();
+            crc.update(buf, start, recordEnd - start);
+            return (int) crc.getValue() == expected ? recordEnd : -1;
+        }
+    }
+
+    // Streams a transaction CSV through a FileChannel and tokenizes each line in place
+    static final class TransactionCsvReader {
+        private static final int BUFFER_SIZE = 1 << 16;
+        private static final int MAX_FAST_DIGITS = 15;
+        private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+        };
+        private static final int CACHE_SIZE = 64;
+
+        interface RowHandler {
+            void row(char op, Transaction transaction);
+
+            default void invalid(String line) {
+                LOG.warning(() -> "Skipping invalid line: " + line);
+            }
+
+            // Checked between chunks; a cancelled read returns what it has scanned so far
+            default boolean cancelled() {
+                return false;
+            }
+        }
+
+        // What one pass over a file found. In a checksummed file read with stopAtDamage, the first record
+        // that fails to verify ends the read and everything from there on is counted as lost
+        static final class Scan {
+            boolean checksummed;
+            long generation;
+            int lostRecords;
+            boolean stopped;
+            // Bytes up to the end of the last record that was read before any stop
+            long validLength;
+        }
+
+        private final boolean hasHeader;
+        private final boolean hasOpColumn;
+        private final boolean stopAtDamage;
+        private final RowHandler handler;
+        private final Scan scan = new Scan();
+        private final java.util.zip.CRC32C crc = new java.util.zip.CRC32C();
+        private boolean firstLine = true;
+        private final int[] fieldStarts = new int[6];
+        private final int[] fieldEnds = new int[6];
+        // Types and categories repeat on almost every row, so they are decoded once and reused
+        private final byte[][] cachedBytes = new byte[CACHE_SIZE][];
+        private final String[] cachedStrings = new String[CACHE_SIZE];
+
+        private TransactionCsvReader(boolean hasHeader, boolean hasOpColumn, boolean stopAtDamage, RowHandler handler) {
+            this.hasHeader = hasHeader;
+            this.hasOpColumn = hasOpColumn;
+            this.stopAtDamage = stopAtDamage;
+            this.handler = handler;
+        }
+
+        static Scan read(java.nio.file.Path file, boolean hasHeader, boolean hasOpColumn, boolean stopAtDamage,
+                         RowHandler handler) throws IOException {
+            TransactionCsvReader reader = new TransactionCsvReader(hasHeader, hasOpColumn, stopAtDamage, handler);
+
+            try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(file, StandardOpenOption.READ)) {
+                byte[] buf = new byte[BUFFER_SIZE];
+                int filled = 0;
+                int lineStart = 0;
+                // File offset of buf[0]
+                long base = 0;
+
+                while (true) {
+                    if (lineStart > 0) {
+                        System.arraycopy(buf, lineStart, buf, 0, filled - lineStart);
+                        filled -= lineStart;
+                        base += lineStart;
+                        lineStart = 0;
+                    }
+                    if (filled == buf.length) {
+                        buf = Arrays.copyOf(buf, buf.length * 2);
+                    }
+
+                    if (handler.cancelled()) {
+                        return reader.scan;
+                    }
+                    int read = channel.read(java.nio.ByteBuffer.wrap(buf, filled, buf.length - filled));
+                    if (read < 0) break;
+
+                    int end = filled + read;
+                    for (int i = filled; i < end; i++) {
+                        if (buf[i] != '\n') continue;
+                        reader.line(buf, lineStart, i, base + i + 1);
+                        lineStart = i + 1;
+                    }
+                    filled = end;
+                }
+
+                if (lineStart < filled) {
+                    reader.line(buf, lineStart, filled, base + filled);
+                }
+            }
+            return reader.scan;
+        }
+
+        private void line(byte[] buf, int start, int end, long nextOffset) {
+            if (end > start && buf[end - 1] == '\r') end--;
+            if (firstLine) {
+                firstLine = false;
+                if (ChecksummedLines.isHeader(buf, start, end)) {
+                    scan.checksummed = true;
+                    scan.generation = ChecksummedLines.generation(buf, start, end);
+                    scan.validLength = nextOffset;
+                    return;
+                }
+                if (hasHeader) {
+                    scan.validLength = nextOffset;
+                    return;
+                }
+            }
+
+            if (scan.stopped) {
+                if (!isBlank(buf, start, end)) scan.lostRecords++;
+            } else if (parseLine(buf, start, end)) {
+                scan.validLength = nextOffset;
+            } else {
+                handler.invalid(new String(buf, start, end - start, java.nio.charset.StandardCharsets.UTF_8));
+                scan.lostRecords++;
+                scan.stopped = stopAtDamage && scan.checksummed;
+            }
+        }
+
+        private boolean parseLine(byte[] buf, int start, int end) {
+            if (isBlank(buf, start, end)) return true;
+            if (scan.checksummed) {
+                end = ChecksummedLines.verify(buf, start, end, crc);
+                if (end < 0) return false;
+            }
+
+            int wanted = hasOpColumn ? 6 : 5;
+            int count = 0;
+            int fieldStart = start;
+            for (int i = start; i <= end && count < wanted; i++) {
+                if (i == end || buf[i] == ',') {
+                    fieldStarts[count] = fieldStart;
+                    fieldEnds[count] = i;
+                    count++;
+                    fieldStart = i + 1;
+                }
+            }
+            if (count < wanted) {
+                return false;
+            }
+
+            try {
+                int f = 0;
+                char op = 0;
+                if (hasOpColumn) {
+                    if (fieldEnds[0] - fieldStarts[0] != 1) throw new IllegalArgumentException("Bad op");
+                    op = (char) buf[fieldStarts[0]];
+                    f = 1;
+                }
+
+                LocalDate date = parseIsoDate(buf, fieldStarts[f], fieldEnds[f]);
+                if (!TransactionTable.isSupported(date)) return false;
+                String type = cachedText(buf, fieldStarts[f + 1], fieldEnds[f + 1]);
+                String category = cachedText(buf, fieldStarts[f + 2], fieldEnds[f + 2]);
+                double amount = parseDecimal(buf, fieldStarts[f + 3], fieldEnds[f + 3]);
+                String note = text(buf, fieldStarts[f + 4], fieldEnds[f + 4]);
+
+                handler.row(op, new Transaction(date, type, category, amount, note));
+                return true;
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+
+        private static boolean isBlank(byte[] buf, int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (buf[i] > ' ') return false;
+            }
+            return true;
+        }
+
+        // yyyy-MM-dd is the only format the app writes; anything else goes through LocalDate.parse
+        static LocalDate parseIsoDate(byte[] buf, int start, int end) {
+            if (end - start == 10 && buf[start + 4] == '-' && buf[start + 7] == '-') {
+                int year = digits(buf, start, start + 4);
+                int month = digits(buf, start + 5, start + 7);
+                int day = digits(buf, start + 8, start + 10);
+                if (year >= 0 && month >= 0 && day >= 0) {
+                    return LocalDate.of(year, month, day);
+                }
+            }
+            return LocalDate.parse(new String(buf, start, end - start, java.nio.charset.StandardCharsets.US_ASCII));
+        }
+
+        private static int digits(byte[] buf, int start, int end) {
+            int value = 0;
+            for (int i = start; i < end; i++) {
+                int d = buf[i] - '0';
+                if (d < 0 || d > 9) return -1;
+                value = value * 10 + d;
+            }
+            return value;
+        }
+
+        // Plain decimals are parsed exactly from the bytes; exponents and long mantissas fall back to Double
+        static double parseDecimal(byte[] buf, int start, int end) {
+            int i = start;
+            boolean negative = false;
+            if (i < end && (buf[i] == '-' || buf[i] == '+')) {
+                negative = buf[i] == '-';
+                i++;
+            }
+
+            long mantissa = 0;
+            int digitCount = 0;
+            int scale = -1;
+            for (; i < end; i++) {
+                byte b = buf[i];
+                if (b >= '0' && b <= '9') {
+                    if (++digitCount > MAX_FAST_DIGITS) return slowDecimal(buf, start, end);
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (scale >= 0) scale++;
+                } else if (b == '.' && scale < 0) {
+                    scale = 0;
+                } else {
+                    return slowDecimal(buf, start, end);
+                }
+            }
+            if (digitCount == 0) return slowDecimal(buf, start, end);
+
+            double value = scale > 0 ? mantissa / POW10[scale] : mantissa;
+            return negative ? -value : value;
+        }
+
+        private static double slowDecimal(byte[] buf, int start, int end) {
+            return Double.parseDouble(new String(buf, start, end - start, java.nio.charset.StandardCharsets.US_ASCII));
+        }
+
+        private String cachedText(byte[] buf, int start, int end) {
+            int hash = 1;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + buf[i];
+            }
+            int slot = hash & (CACHE_SIZE - 1);
+
+            byte[] cached = cachedBytes[slot];
+            if (cached != null && Arrays.equals(cached, 0, cached.length, buf, start, end)) {
+                return cachedStrings[slot];
+            }
+
+            String value = text(buf, start, end);
+            cachedBytes[slot] = Arrays.copyOfRange(buf, start, end);
+            cachedStrings[slot] = value;
+            return value;
+        }
+
+        // Only fields that actually contain an escape sequence pay for unescaping
+        private static String text(byte[] buf, int start, int end) {
+            String value = new String(buf, start, end - start, java.nio.charset.StandardCharsets.UTF_8);
+            for (int i = start; i < end; i++) {
+                if (buf[i] == '&') return unescapeCommas(value);
+            }
+            return value;
+        }
+    }
+
+    // Binary snapshot: fixed-width columns plus a note heap, read lazily through a memory map
+    static final class ColumnarTransactionStore {
+        private static final long MAGIC = 0x46464C4F57434F4CL; // "FFLOWCOL"
+        private static final int VERSION = 3;
+        // Version 2 adds the snapshot generation and a CRC32C of everything after the header. Version 3 instead
+        // checks the header and dictionaries with one CRC32C and every BLOCK_ROWS rows with their own, so a
+        // damaged block costs only its rows
+        private static final int HEADER_SIZE = 32;
+        private static final int LEGACY_HEADER_SIZE = 16;
+        static final int BLOCK_ROWS = 4096;
+
+        private final java.nio.MappedByteBuffer map;
+        private final boolean checksummed;
+        private final long generation;
+        private final int rowCount;
+        private final String[] typeNames;
+        private final String[] categoryNames;
+        private final int dayOffset;
+        private final int typeOffset;
+        private final int categoryOffset;
+        private final int amountOffset;
+        private final int noteIndexOffset;
+        private final int noteHeapOffset;
+        // Blocks whose rows failed their checksum
+        private final BitSet damaged = new BitSet();
+
+        private ColumnarTransactionStore(java.nio.MappedByteBuffer map) throws IOException {
+            this.map = map;
+            map.order(java.nio.ByteOrder.LITTLE_ENDIAN);
+            if (map.capacity() < LEGACY_HEADER_SIZE) {
+                throw new IOException("Transaction store is truncated");
+            }
+            int version = map.getInt(8);
+            if (map.getLong(0) != MAGIC || version < 1 || version > VERSION) {
+                throw new IOException("Not a transaction store");
+            }
+            checksummed = version >= 2;
+            if (checksummed && map.capacity() < HEADER_SIZE) {
+                throw new IOException("Transaction store is truncated");
+            }
+            generation = checksummed ? map.getLong(16) : 0;
+            rowCount = map.getInt(12);
+            if (version == 2) {
+                java.util.zip.CRC32C crc = new java.util.zip.CRC32C();
+                crc.update(map.duplicate().position(HEADER_SIZE));
+                if ((int) crc.getValue() != map.getInt(24)) {
+                    throw new IOException("Transaction store failed its checksum");
+                }
+            }
+            map.position(checksummed ? HEADER_SIZE : LEGACY_HEADER_SIZE);
+            typeNames = readDictionary(map);
+            categoryNames = readDictionary(map);
+
+            int blockTableOffset = align(map.position(), 4);
+            long dataStart = blockTableOffset + (version == 3 ? blockCount(rowCount) * 4L : 0);
+            if (rowCount < 0 || dataStart > map.capacity()) {
+                throw new IOException("Transaction store is damaged");
+            }
+            if (version == 3 && metadataCrc(map, blockTableOffset, (int) dataStart) != map.getInt(24)) {
+                throw new IOException("Transaction store header failed its checksum");
+            }
+            Layout layout = new Layout((int) dataStart, rowCount);
+            if (layout.noteHeapOffset > map.capacity()) {
+                throw new IOException("Transaction store is truncated");
+            }
+            dayOffset = layout.dayOffset;
+            typeOffset = layout.typeOffset;
+            categoryOffset = layout.categoryOffset;
+            amountOffset = layout.amountOffset;
+            noteIndexOffset = layout.noteIndexOffset;
+            noteHeapOffset = (int) layout.noteHeapOffset;
+
+            if (version == 3) {
+                for (int block = 0; block < blockCount(rowCount); block++) {
+                    long stored = Integer.toUnsignedLong(map.getInt(blockTableOffset + block * 4));
+                    if (blockCrc(map, layout, block, rowCount) != stored) {
+                        damaged.set(block);
+                    }
+                }
+            }
+        }
+
+        static ColumnarTransactionStore open(java.nio.file.Path file) throws IOException {
+            try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(file, StandardOpenOption.READ)) {
+                if (channel.size() > Integer.MAX_VALUE) {
+                    throw new IOException("Transaction store too large: " + file);
+                }
+                return new ColumnarTransactionStore(
+                        channel.map(java.nio.channels.FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+
+        int size() { return rowCount; }
+        boolean checksummed() { return checksummed; }
+        long generation() { return generation; }
+        // Rows of a damaged block hold garbage and must be skipped
+        boolean intact(int row) { return !damaged.get(row / BLOCK_ROWS); }
+        int epochDay(int row) { return map.getInt(dayOffset + row * 4); }
+        String type(int row) { return typeNames[map.get(typeOffset + row)]; }
+        String category(int row) { return categoryNames[map.getShort(categoryOffset + row * 2)]; }
+        // Fixed-point, TransactionTable.AMOUNT_SCALE units
+        long amount(int row) { return map.getLong(amountOffset + row * 8); }
+
+        int damagedRows() {
+            int rows = 0;
+            for (int block = damaged.nextSetBit(0); block >= 0; block = damaged.nextSetBit(block + 1)) {
+                rows += Math.min(BLOCK_ROWS, rowCount - block * BLOCK_ROWS);
+            }
+            return rows;
+        }
+
+        String note(int row) {
+            int start = map.getInt(noteIndexOffset + row * 4);
+            int end = map.getInt(noteIndexOffset + (row + 1) * 4);
+            byte[] bytes = new byte[end - start];
+            map.get(noteHeapOffset + start, bytes);
+            return new String(bytes, java.nio.charset.StandardCharsets.UTF_8);
+        }
+
+        static void write(java.nio.file.Path file, TransactionTable table, long generation, boolean sync) throws IOException {
+            int rowCount = table.liveCount();
+            int[] rows = table.liveRows().toArray();
+            byte[][] notes = new byte[rowCount][];
+            long heapSize = 0;
+            for (int i = 0; i < rowCount; i++) {
+                notes[i] = table.note(rows[i]).getBytes(java.nio.charset.StandardCharsets.UTF_8);
+                heapSize += notes[i].length;
+            }
+
+            // The table dictionaries are written as-is, so type and category ids are copied straight across
+            List<String> typeNames = new ArrayList<>();
+            for (byte id = 0; id < table.typeCount(); id++) typeNames.add(table.typeName(id));
+            List<String> categoryNames = new ArrayList<>();
+            for (short id = 0; id < table.categoryCount(); id++) categoryNames.add(table.categoryName(id));
+
+            byte[] dictionaries = encodeDictionaries(typeNames, categoryNames);
+            int blockTableOffset = align(HEADER_SIZE + dictionaries.length, 4);
+            int dataStart = blockTableOffset + blockCount(rowCount) * 4;
+            Layout layout = new Layout(dataStart, rowCount);
+            long totalSize = layout.noteHeapOffset + heapSize;
+            if (totalSize > Integer.MAX_VALUE) {
+                throw new IOException("Transaction history too large for the binary store");
+            }
+
+            java.nio.ByteBuffer out = java.nio.ByteBuffer.allocate((int) totalSize).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+            out.putLong(MAGIC).putInt(VERSION).putInt(rowCount).putLong(generation).putLong(0).put(dictionaries);
+
+            int heapOffset = (int) layout.noteHeapOffset;
+            int heapPosition = 0;
+            for (int i = 0; i < rowCount; i++) {
+                int row = rows[i];
+                out.putInt(layout.dayOffset + i * 4, table.epochDay(row));
+                out.put(layout.typeOffset + i, table.type(row));
+                out.putShort(layout.categoryOffset + i * 2, table.categoryId(row));
+                out.putLong(layout.amountOffset + i * 8, table.amount(row));
+                out.putInt(layout.noteIndexOffset + i * 4, heapPosition);
+                out.put(heapOffset + heapPosition, notes[i]);
+                heapPosition += notes[i].length;
+            }
+            out.putInt(layout.noteIndexOffset + rowCount * 4, heapPosition);
+
+            for (int block = 0; block < blockCount(rowCount); block++) {
+                out.putInt(blockTableOffset + block * 4, (int) blockCrc(out, layout, block, rowCount));
+            }
+            out.putInt(24, metadataCrc(out, blockTableOffset, dataStart));
+
+            // Replace the old store in one step so a reader never sees a half-written file
+            java.nio.file.Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(temp,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                out.clear();
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+                if (sync) {
+                    channel.force(true);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        // Column offsets for a store whose columns start at dataStart
+        private static final class Layout {
+            final int dayOffset;
+            final int typeOffset;
+            final int categoryOffset;
+            final int amountOffset;
+            final int noteIndexOffset;
+            // A long, so a damaged row count is caught by the size check instead of overflowing
+            final long noteHeapOffset;
+
+            Layout(int dataStart, int rowCount) {
+                long day = align(dataStart, 8);
+                long category = alignLong(day + rowCount * 4L + rowCount, 2);
+                long amount = alignLong(category + rowCount * 2L, 8);
+                long noteIndex = amount + rowCount * 8L;
+                noteHeapOffset = noteIndex + (rowCount + 1L) * 4;
+                boolean fits = noteHeapOffset <= Integer.MAX_VALUE;
+                dayOffset = fits ? (int) day : 0;
+                typeOffset = fits ? (int) (day + rowCount * 4L) : 0;
+                categoryOffset = fits ? (int) category : 0;
+                amountOffset = fits ? (int) amount : 0;
+                noteIndexOffset = fits ? (int) noteIndex : 0;
+            }
+        }
+
+        private static int blockCount(int rowCount) {
+            return (rowCount + BLOCK_ROWS - 1) / BLOCK_ROWS;
+        }
+
+        // CRC32C of the header fields before the CRC itself, the dictionaries and the block table
+        private static int metadataCrc(java.nio.ByteBuffer buf, int blockTableOffset, int dataStart) {
+            java.util.zip.CRC32C crc = new java.util.zip.CRC32C();
+            crc.update(range(buf, 0, 24));
+            crc.update(range(buf, HEADER_SIZE, dataStart));
+            return (int) crc.getValue();
+        }
+
+        // CRC32C of one block's slice of every column and of its notes, or -1 when the note offsets point
+        // outside the buffer
+        private static long blockCrc(java.nio.ByteBuffer buf, Layout layout, int block, int rowCount) {
+            int from = block * BLOCK_ROWS;
+            int to = Math.min(rowCount, from + BLOCK_ROWS);
+            java.util.zip.CRC32C crc = new java.util.zip.CRC32C();
+            crc.update(range(buf, layout.dayOffset + from * 4, layout.dayOffset + to * 4));
+            crc.update(range(buf, layout.typeOffset + from, layout.typeOffset + to));
+            crc.update(range(buf, layout.categoryOffset + from * 2, layout.categoryOffset + to * 2));
+            crc.update(range(buf, layout.amountOffset + from * 8, layout.amountOffset + to * 8));
+            crc.update(range(buf, layout.noteIndexOffset + from * 4, layout.noteIndexOffset + (to + 1) * 4));
+            long heapStart = layout.noteHeapOffset + buf.getInt(layout.noteIndexOffset + from * 4);
+            long heapEnd = layout.noteHeapOffset + buf.getInt(layout.noteIndexOffset + to * 4);
+            if (heapStart < layout.noteHeapOffset || heapEnd < heapStart || heapEnd > buf.capacity()) {
+                return -1;
+            }
+            crc.update(range(buf, (int) heapStart, (int) heapEnd));
+            return crc.getValue();
+        }
+
+        private static java.nio.ByteBuffer range(java.nio.ByteBuffer buf, int start, int end) {
+            return buf.duplicate().clear().limit(end).position(start);
+        }
+
+        // Appends every stored row to the table
+        void loadInto(TransactionTable table) {
+            for (int row = 0; row < rowCount; row++) {
+                if (intact(row)) table.append(epochDay(row), type(row), category(row), amount(row), note(row));
+            }
+        }
+
+        // Builds a binary store from a date,type,category,amount,note CSV
+        // Keeps the CSV's generation so its journal still applies; the scan reports rows that did not survive
+        static TransactionCsvReader.Scan convertCsv(java.nio.file.Path csvFile, java.nio.file.Path storeFile) throws IOException {
+            TransactionTable rows = new TransactionTable();
+            TransactionCsvReader.Scan scan = TransactionCsvReader.read(csvFile, true, false, false,
+                    (op, transaction) -> rows.append(transaction));
+            write(storeFile, rows, scan.generation, true);
+            return scan;
+        }
+
+        private static byte[] encodeDictionaries(Collection<String> types, Collection<String> categories) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream data = new DataOutputStream(bytes);
+            try {
+                for (Collection<String> names : Arrays.asList(types, categories)) {
+                    writeIntLE(data, names.size());
+                    for (String name : names) {
+                        byte[] encoded = name.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+                        writeIntLE(data, encoded.length);
+                        data.write(encoded);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }
+
+        private static void writeIntLE(DataOutputStream data, int value) throws IOException {
+            data.writeInt(Integer.reverseBytes(value));
+        }
+
+        // Lengths are checked against what is left, so a damaged count fails instead of allocating wildly
+        private static String[] readDictionary(java.nio.ByteBuffer in) throws IOException {
+            int count = in.remaining() < 4 ? -1 : in.getInt();
+            if (count < 0 || count > in.remaining() / 4) {
+                throw new IOException("Transaction store dictionary is damaged");
+            }
+            String[] names = new String[count];
+            for (int i = 0; i < names.length; i++) {
+                int length = in.remaining() < 4 ? -1 : in.getInt();
+                if (length < 0 || length > in.remaining()) {
+                    throw new IOException("Transaction store dictionary is damaged");
+                }
+                byte[] encoded = new byte[length];
+                in.get(encoded);
+                names[i] = new String(encoded, java.nio.charset.StandardCharsets.UTF_8);
+            }
+            return names;
+        }
+
+        private static int align(int offset, int alignment) {
+            return (offset + alignment - 1) / alignment * alignment;
+        }
+
+        private static long alignLong(long offset, int alignment) {
+            return (offset + alignment - 1) / alignment * alignment;
+        }
     }
 
-    private final ObservableList<Transaction> transactions = FXCollections.observableArrayList();
+    private final TransactionTable transactions = new TransactionTable();
+    private final AggregateEngine aggregates = new AggregateEngine(transactions);
+    private final DateIndex dateIndex = new DateIndex(transactions);
+    private final DailyBalanceIndex balances = new DailyBalanceIndex(transactions);
+    private final FilterIndex filters = new FilterIndex(transactions, dateIndex);
+    private final TextIndex textIndex = new TextIndex(transactions);
+    private final RefreshScheduler refresh = new RefreshScheduler(this::applyRefresh);
+    private final Map<String, TabView> tabViews = new HashMap<>();
+    private long dataVersion;
+    private final PauseTransition dayRollover = new PauseTransition();
     private final ObservableList<String> categories = FXCollections.observableArrayList(
             "Food & Dining", "Transportation", "Shopping", "Entertainment", "Bills & Utilities", 
             "Healthcare", "Education", "Investment", "Travel", "Income", "Other"
@@ -76,20 +3028,56 @@ public class ModernFinanceApp extends Application {
     // UI Components
     private Label incomeLabel, expenseLabel, balanceLabel;
     private PieChart expenseChart;
+    private PieChartModel expenseSlices;
     private AreaChart<String, Number> trendChart;
     private double monthlyBudget = 50000;
+    
+    private static final String ROW_STYLE = "-fx-background-color: rgba(255, 255, 255, 0.05); -fx-background-radius: 12;";
+    private static final String ROW_HOVER_STYLE = "-fx-background-color: rgba(255, 255, 255, 0.1); -fx-background-radius: 12;";
+    private static final DateTimeFormatter ROW_DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+    private static final double TRANSACTION_CELL_HEIGHT = 92;
+    private static final int RECENT_COUNT = 5;
+    private static final int LOAD_BATCH_SIZE = 5000;
+    private static final int AUTH_THREADS = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() / 2));
+    private static final int AUTH_QUEUE_CAPACITY = 8;
+    private static final String AUTH_LANE = "auth";
+    // Journal, snapshot and export writes run one at a time, in submission order
+    private static final String STORAGE_LANE = "storage";
     private Timeline backgroundAnimation;
+    private ParticleField particleField;
+    private AnimationRegistry animations;
+    private final NotificationCenter notifications = new NotificationCenter();
+    private final AccountsService accounts = new AccountsService(Paths.get(ACCOUNTS_FILE));
+    private final TaskRunner tasks = new TaskRunner();
+    // Login and registration outlive any one session; everything tied to a user lives in the session scope
+    private final TaskRunner.Scope appScope = tasks.newScope();
+    private TaskRunner.Scope session = tasks.newScope();
 
     @Override
     public void start(Stage stage) {
         primaryStage = stage;
         primaryStage.setTitle("Modern Finance Manager");
+        tasks.addLane(AUTH_LANE, AUTH_THREADS, AUTH_QUEUE_CAPACITY);
+        tasks.addLane(STORAGE_LANE, 1, Integer.MAX_VALUE);
+        animations = new AnimationRegistry(primaryStage);
         primaryStage.setMaximized(true);
         
         initializeDirectories();
         showLoginScreen();
     }
 
+    @Override
+    public void stop() {
+        // Pending changes go out before the app exits, and before the cube is stamped with the files they produce.
+        // Without a writer the table is half loaded or unreadable and is not saved at all
+        if (persistence != null) {
+            persistence.close();
+            persistence = null;
+            saveRollupCube();
+        }
+        tasks.shutdown();
+    }
+
     private void initializeDirectories() {
         try {
             java.nio.file.Path appFolder = Paths.get(BASE_FOLDER);
@@ -140,7 +3128,7 @@ public class ModernFinanceApp extends Application {
         // Animated gradient background
         rootPane.setBackground(createAnimatedBackground());
         
-        Scene scene = new Scene(rootPane, 1400, 900);
+        Scene scene = new Scene(notifications.wrap(rootPane), 1400, 900);
         scene.getStylesheets().add(createModernCSS());
         primaryStage.setScene(scene);
         primaryStage.show();
@@ -164,32 +3152,18 @@ public class ModernFinanceApp extends Application {
     }
 
     private Pane createParticleBackground() {
-        Pane particlePane = new Pane();
-        particlePane.setMouseTransparent(true);
-        
-        // Create floating particles
-        Random random = new Random();
-        for (int i = 0; i < 50; i++) {
-            Circle particle = new Circle(random.nextDouble() * 3 + 1);
-            particle.setFill(Color.WHITE.deriveColor(0, 1, 1, 0.1 + random.nextDouble() * 0.2));
-            particle.setCenterX(random.nextDouble() * 1400);
-            particle.setCenterY(random.nextDouble() * 900);
-            
-            // Floating animation
-            Timeline floatAnimation = new Timeline(
-                new KeyFrame(Duration.ZERO, 
-                    new KeyValue(particle.translateYProperty(), 0)),
-                new KeyFrame(Duration.seconds(10 + random.nextDouble() * 10), 
-                    new KeyValue(particle.translateYProperty(), -50 - random.nextDouble() * 100))
-            );
-            floatAnimation.setCycleCount(Timeline.INDEFINITE);
-            floatAnimation.setAutoReverse(true);
-            floatAnimation.play();
-            
-            particlePane.getChildren().add(particle);
+        disposeParticleBackground();
+        particleField = new ParticleField();
+        animations.play(particleField.node(), particleField.timer());
+        return particleField.node();
+    }
+
+    private void disposeParticleBackground() {
+        if (particleField != null) {
+            animations.stop(particleField.timer());
+            particleField.dispose();
+            particleField = null;
         }
-        
-        return particlePane;
     }
 
     private VBox createGlassmorphismContainer() {
@@ -254,7 +3228,7 @@ public class ModernFinanceApp extends Application {
         );
         pulse.setCycleCount(Timeline.INDEFINITE);
         pulse.setAutoReverse(true);
-        pulse.play();
+        animations.play(statusDot, pulse);
         
         Text statusText = new Text("Connected to Local Storage");
         statusText.setFont(Font.font("Segoe UI", 12));
@@ -529,13 +3503,14 @@ public class ModernFinanceApp extends Application {
     // STUNNING MAIN APPLICATION
     private void showMainApp() {
         primaryStage.setTitle("FinanceFlow - " + currentUserId);
+        disposeParticleBackground();
         
         rootPane = new BorderPane();
         
         // Create main layout with floating panels
         createMainLayout();
         
-        Scene scene = new Scene(rootPane, 1600, 1000);
+        Scene scene = new Scene(notifications.wrap(rootPane), 1600, 1000);
         scene.getStylesheets().add(createMainAppCSS());
         primaryStage.setScene(scene);
         primaryStage.setMaximized(true);
@@ -567,8 +3542,10 @@ public class ModernFinanceApp extends Application {
         mainContentArea = new StackPane();
         rootPane.setCenter(mainContentArea);
         
-        // Show dashboard by default
-        showDashboard();
+        // Show dashboard by default; views from a previous session belong to the old root
+        tabViews.clear();
+        switchTab("Dashboard");
+        scheduleDayRollover();
         
         // Floating action button
         Button fab = createFloatingActionButton();
@@ -664,9 +3641,14 @@ public class ModernFinanceApp extends Application {
                           "-fx-padding: 8 16; " +
                           "-fx-cursor: hand;");
         logoutBtn.setOnAction(e -> {
-            currentUserId = null;
-            transactions.clear();
-            showLoginScreen();
+            // Pending changes are written on the storage lane while the screen stays disabled, and the cube is
+            // stamped once they are on disk. A load in progress is simply abandoned; it has nothing new to save
+            rootPane.setDisable(true);
+            if (persistence == null) {
+                finishLogout(false);
+            } else {
+                persistence.close(() -> finishLogout(true));
+            }
         });
         
         profile.getChildren().addAll(avatar, userInfo, logoutBtn);
@@ -674,6 +3656,27 @@ public class ModernFinanceApp extends Application {
         return profile;
     }
 
+    private void finishLogout(boolean saveCube) {
+        if (saveCube) {
+            saveRollupCube();
+        }
+        persistence = null;
+        session.cancel();
+        loading = false;
+        currentUserId = null;
+        transactions.clear();
+        aggregates.rebuild();
+        rebuildIndexes();
+        typeFilterValue = "All";
+        categoryFilterValue = "All Categories";
+        dateFromFilter = dateToFilter = null;
+        searchQuery = "";
+        refreshVisibleRows();
+        tabViews.clear();
+        dayRollover.stop();
+        showLoginScreen();
+    }
+
     private VBox createModernSidebar() {
         VBox sidebar = new VBox(10);
         sidebar.setPrefWidth(280);
@@ -748,7 +3751,7 @@ public class ModernFinanceApp extends Application {
         );
         float_animation.setCycleCount(Timeline.INDEFINITE);
         float_animation.setAutoReverse(true);
-        float_animation.play();
+        animations.play(fab, float_animation);
         
         fab.setOnAction(e -> showAddTransactionDialog());
         
@@ -779,17 +3782,47 @@ public class ModernFinanceApp extends Application {
             }
         }
         
-        // Show corresponding content
+        // Show corresponding content, built on first visit and reused afterwards
+        TabView view = tabViews.computeIfAbsent(tabName, this::buildTabView);
+        view.refreshIfStale(dataVersion, LocalDate.now().toEpochDay());
+        updateContentWithAnimation(view.root);
+    }
+
+    private TabView buildTabView(String tabName) {
         switch (tabName) {
-            case "Dashboard": showDashboard(); break;
-            case "Transactions": showTransactions(); break;
-            case "Analytics": showAnalytics(); break;
-            case "Budget": showBudget(); break;
-            case "Settings": showSettings(); break;
+            case "Dashboard": return buildDashboardView();
+            case "Transactions": return buildTransactionsView();
+            case "Analytics": return buildAnalyticsView();
+            case "Budget": return buildBudgetView();
+            case "Settings": return buildSettingsView();
+            default: throw new IllegalArgumentException("Unknown tab: " + tabName);
+        }
+    }
+
+    // Shortly after midnight the date-relative widgets move on to the new day, even if nothing was edited
+    private void scheduleDayRollover() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime nextDay = now.toLocalDate().plusDays(1).atStartOfDay().plusSeconds(1);
+        dayRollover.stop();
+        dayRollover.setDuration(Duration.millis(java.time.Duration.between(now, nextDay).toMillis()));
+        dayRollover.setOnFinished(e -> {
+            refresh.request(RefreshScheduler.TREND_CHART);
+            scheduleDayRollover();
+        });
+        dayRollover.playFromStart();
+    }
+
+    // Called after data or budget changes; only the visible tab is refreshed now, the rest when next shown
+    private void markViewsStale() {
+        dataVersion++;
+        TabView current = tabViews.get(currentTab);
+        if (current != null) {
+            current.refreshIfStale(dataVersion, LocalDate.now().toEpochDay());
         }
     }
 
-    private void showDashboard() {
+    // Dashboard widgets are kept current by the refresh scheduler, so the view itself has nothing to re-read
+    private TabView buildDashboardView() {
         VBox dashboard = new VBox(30);
         dashboard.setPadding(new Insets(30));
         
@@ -808,7 +3841,7 @@ public class ModernFinanceApp extends Application {
         scroll.setFitToWidth(true);
         scroll.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
         
-        updateContentWithAnimation(scroll);
+        return new TabView(scroll, () -> {});
     }
 
     private HBox createWelcomeSection() {
@@ -877,6 +3910,8 @@ public class ModernFinanceApp extends Application {
 
     // IMPROVED: Enhanced black theme for quick transaction dialog
     private void showQuickTransactionDialog(String transactionType) {
+        if (!checkEditable()) return;
+        
         Stage dialog = new Stage();
         dialog.initModality(Modality.APPLICATION_MODAL);
         dialog.initOwner(primaryStage);
@@ -953,9 +3988,7 @@ public class ModernFinanceApp extends Application {
                 String note = noteField.getText();
                 
                 Transaction transaction = new Transaction(LocalDate.now(), transactionType, category, Math.abs(amount), note);
-                transactions.add(0, transaction);
-                saveUserTransactions();
-                updateAllStats();
+                addTransaction(transaction);
                 
                 showNotification(transactionType + " added successfully!", "#10b981");
                 dialog.close();
@@ -1077,6 +4110,7 @@ public class ModernFinanceApp extends Application {
         expenseChart = new PieChart();
         expenseChart.setPrefSize(350, 300);
         expenseChart.setStyle("-fx-background-color: transparent;");
+        expenseSlices = new PieChartModel(expenseChart, "No expenses yet");
         updateExpenseChart();
         pieChartCard.getChildren().add(expenseChart);
         
@@ -1135,7 +4169,7 @@ public class ModernFinanceApp extends Application {
         return section;
     }
 
-    private void showTransactions() {
+    private TabView buildTransactionsView() {
         VBox transactionsView = new VBox(25);
         transactionsView.setPadding(new Insets(30));
         
@@ -1146,22 +4180,30 @@ public class ModernFinanceApp extends Application {
         // Filter controls
         HBox filterBox = createFilterControls();
         
-        // Transactions list
-        VBox transactionsList = new VBox(10);
-        transactionsList.setPadding(new Insets(25));
-        transactionsList.setStyle("-fx-background-color: rgba(255, 255, 255, 0.1); " +
-                                 "-fx-background-radius: 20; " +
-                                 "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.2), 15, 0, 0, 5);");
+        // Virtualized list: only the visible rows exist as nodes, and cells are recycled while scrolling
+        ListView<Integer> transactionsListView = new ListView<>(visibleRows);
+        transactionsListView.setFixedCellSize(TRANSACTION_CELL_HEIGHT);
+        transactionsListView.setCellFactory(list -> new TransactionCell());
+        transactionsListView.setFocusTraversable(false);
         
-        updateAllTransactionsList(transactionsList);
+        Label emptyLabel = new Label("No transactions yet");
+        emptyLabel.setTextFill(Color.WHITE.deriveColor(0, 1, 1, 0.7));
+        emptyLabel.setFont(Font.font("Segoe UI", 16));
+        transactionsListView.setPlaceholder(emptyLabel);
         
-        transactionsView.getChildren().addAll(title, filterBox, transactionsList);
+        VBox listCard = new VBox(transactionsListView);
+        listCard.setPadding(new Insets(25));
+        listCard.setStyle("-fx-background-color: rgba(255, 255, 255, 0.1); " +
+                         "-fx-background-radius: 20; " +
+                         "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.2), 15, 0, 0, 5);");
+        VBox.setVgrow(transactionsListView, Priority.ALWAYS);
+        VBox.setVgrow(listCard, Priority.ALWAYS);
         
-        ScrollPane scroll = new ScrollPane(transactionsView);
-        scroll.setFitToWidth(true);
-        scroll.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
+        refreshVisibleRows();
         
-        updateContentWithAnimation(scroll);
+        transactionsView.getChildren().addAll(title, filterBox, listCard);
+        
+        return new TabView(transactionsView, () -> {});
     }
 
     private HBox createFilterControls() {
@@ -1170,7 +4212,7 @@ public class ModernFinanceApp extends Application {
         
         ComboBox<String> typeFilter = new ComboBox<>();
         typeFilter.getItems().addAll("All", "Income", "Expense");
-        typeFilter.setValue("All");
+        typeFilter.setValue(typeFilterValue);
         typeFilter.setStyle("-fx-background-color: rgba(255, 255, 255, 0.2); " +
                            "-fx-text-fill: white; " +
                            "-fx-background-radius: 15;");
@@ -1178,15 +4220,46 @@ public class ModernFinanceApp extends Application {
         ComboBox<String> categoryFilter = new ComboBox<>();
         categoryFilter.getItems().addAll("All Categories");
         categoryFilter.getItems().addAll(categories);
-        categoryFilter.setValue("All Categories");
+        categoryFilter.setValue(categoryFilterValue);
         categoryFilter.setStyle("-fx-background-color: rgba(255, 255, 255, 0.2); " +
                                "-fx-text-fill: white; " +
                                "-fx-background-radius: 15;");
         
-        DatePicker dateFrom = new DatePicker();
-        DatePicker dateTo = new DatePicker();
+        TextField searchField = new TextField(searchQuery);
+        // Categories, month names and years are indexed alongside the notes, so "rent march" works
+        searchField.setPromptText("Search notes, categories, months...");
+        searchField.setPrefWidth(260);
+        searchField.setStyle("-fx-background-color: rgba(255, 255, 255, 0.2); " +
+                            "-fx-text-fill: white; " +
+                            "-fx-prompt-text-fill: rgba(255, 255, 255, 0.6); " +
+                            "-fx-background-radius: 15;");
+        searchField.textProperty().addListener((obs, oldValue, newValue) -> {
+            searchQuery = newValue;
+            refreshVisibleRows();
+        });
+        
+        DatePicker dateFrom = new DatePicker(dateFromFilter);
+        DatePicker dateTo = new DatePicker(dateToFilter);
+        
+        typeFilter.valueProperty().addListener((obs, oldValue, newValue) -> {
+            typeFilterValue = newValue;
+            refreshVisibleRows();
+        });
+        categoryFilter.valueProperty().addListener((obs, oldValue, newValue) -> {
+            categoryFilterValue = newValue;
+            refreshVisibleRows();
+        });
+        dateFrom.valueProperty().addListener((obs, oldValue, newValue) -> {
+            dateFromFilter = newValue;
+            refreshVisibleRows();
+        });
+        dateTo.valueProperty().addListener((obs, oldValue, newValue) -> {
+            dateToFilter = newValue;
+            refreshVisibleRows();
+        });
         
         filterBox.getChildren().addAll(
+            searchField,
             new Label("Type:"), typeFilter,
             new Label("Category:"), categoryFilter,
             new Label("From:"), dateFrom,
@@ -1204,7 +4277,7 @@ public class ModernFinanceApp extends Application {
         return filterBox;
     }
 
-    private void showAnalytics() {
+    private TabView buildAnalyticsView() {
         VBox analyticsView = new VBox(30);
         analyticsView.setPadding(new Insets(30));
         
@@ -1212,43 +4285,54 @@ public class ModernFinanceApp extends Application {
         title.setFont(Font.font("Segoe UI", FontWeight.BOLD, 32));
         title.setFill(Color.WHITE);
         
+        List<java.util.function.Consumer<AnalyticsSnapshot>> bindings = new ArrayList<>();
+        
         // Analytics cards
-        HBox analyticsCards = createAnalyticsCards();
+        HBox analyticsCards = createAnalyticsCards(bindings);
+        
+        // Custom period
+        VBox customPeriodCard = createCustomPeriodCard(bindings);
         
         // Detailed charts
-        VBox detailedCharts = createDetailedCharts();
+        VBox detailedCharts = createDetailedCharts(bindings);
         
-        analyticsView.getChildren().addAll(title, analyticsCards, detailedCharts);
+        analyticsView.getChildren().addAll(title, analyticsCards, customPeriodCard, detailedCharts);
         
         ScrollPane scroll = new ScrollPane(analyticsView);
         scroll.setFitToWidth(true);
         scroll.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
         
-        updateContentWithAnimation(scroll);
+        return new TabView(scroll, () -> {
+            AnalyticsSnapshot snapshot = aggregates.snapshot(LocalDate.now());
+            bindings.forEach(binding -> binding.accept(snapshot));
+        });
     }
 
-    private HBox createAnalyticsCards() {
+    private HBox createAnalyticsCards(List<java.util.function.Consumer<AnalyticsSnapshot>> bindings) {
         HBox cards = new HBox(25);
         cards.setAlignment(Pos.CENTER);
         
         // Monthly summary card
-        VBox monthlySummary = createAnalyticsCard("This Month", 
-            calculateMonthlyIncome(), calculateMonthlyExpenses(), "#6366f1");
+        VBox monthlySummary = createAnalyticsCard("This Month", "#6366f1");
         
         // Weekly summary card
-        VBox weeklySummary = createAnalyticsCard("This Week", 
-            calculateWeeklyIncome(), calculateWeeklyExpenses(), "#10b981");
+        VBox weeklySummary = createAnalyticsCard("This Week", "#10b981");
         
         // Average spending card
-        VBox avgSpending = createAnalyticsCard("Daily Average", 
-            0, calculateDailyAverage(), "#f59e0b");
+        VBox avgSpending = createAnalyticsCard("Daily Average", "#f59e0b");
+        
+        bindings.add(snapshot -> {
+            updateAnalyticsCard(monthlySummary, snapshot.monthlyIncome(), snapshot.monthlyExpenses());
+            updateAnalyticsCard(weeklySummary, snapshot.weeklyIncome(), snapshot.weeklyExpenses());
+            updateAnalyticsCard(avgSpending, 0, snapshot.dailyAverage());
+        });
         
         cards.getChildren().addAll(monthlySummary, weeklySummary, avgSpending);
         
         return cards;
     }
 
-    private VBox createAnalyticsCard(String period, double income, double expense, String color) {
+    private VBox createAnalyticsCard(String period, String color) {
         VBox card = new VBox(15);
         card.setPadding(new Insets(25));
         card.setPrefWidth(280);
@@ -1260,27 +4344,104 @@ public class ModernFinanceApp extends Application {
         periodText.setFont(Font.font("Segoe UI", FontWeight.BOLD, 18));
         periodText.setFill(Color.WHITE);
         
-        if (income > 0) {
-            Text incomeText = new Text("Income: ₹" + String.format("%.0f", income));
-            incomeText.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 16));
-            incomeText.setFill(Color.WHITE.deriveColor(0, 1, 1, 0.9));
-            card.getChildren().add(incomeText);
-        }
+        // Only shown while there is income to report
+        Text incomeText = new Text();
+        incomeText.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 16));
+        incomeText.setFill(Color.WHITE.deriveColor(0, 1, 1, 0.9));
+        incomeText.managedProperty().bind(incomeText.visibleProperty());
         
-        Text expenseText = new Text("Expenses: ₹" + String.format("%.0f", expense));
+        Text expenseText = new Text();
         expenseText.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 16));
         expenseText.setFill(Color.WHITE.deriveColor(0, 1, 1, 0.9));
         
-        Text netText = new Text("Net: ₹" + String.format("%.0f", income - expense));
+        Text netText = new Text();
         netText.setFont(Font.font("Segoe UI", FontWeight.BOLD, 20));
         netText.setFill(Color.WHITE);
         
-        card.getChildren().addAll(periodText, expenseText, netText);
+        card.getChildren().addAll(periodText, incomeText, expenseText, netText);
+        
+        return card;
+    }
+
+    private void updateAnalyticsCard(VBox card, double income, double expense) {
+        Text incomeText = (Text) card.getChildren().get(1);
+        Text expenseText = (Text) card.getChildren().get(2);
+        Text netText = (Text) card.getChildren().get(3);
+        
+        incomeText.setVisible(income > 0);
+        incomeText.setText("Income: ₹" + String.format("%.0f", income));
+        expenseText.setText("Expenses: ₹" + String.format("%.0f", expense));
+        netText.setText("Net: ₹" + String.format("%.0f", income - expense));
+    }
+
+    private VBox createCustomPeriodCard(List<java.util.function.Consumer<AnalyticsSnapshot>> bindings) {
+        VBox card = createChartCard("Custom Period");
+        
+        HBox pickers = new HBox(15);
+        pickers.setAlignment(Pos.CENTER_LEFT);
+        
+        LocalDate today = LocalDate.now();
+        DatePicker fromPicker = new DatePicker(today.withDayOfMonth(1));
+        DatePicker toPicker = new DatePicker(today);
+        
+        Label fromLabel = new Label("From:");
+        Label toLabel = new Label("To:");
+        fromLabel.setTextFill(Color.WHITE);
+        toLabel.setTextFill(Color.WHITE);
+        fromLabel.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 14));
+        toLabel.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 14));
+        pickers.getChildren().addAll(fromLabel, fromPicker, toLabel, toPicker);
+        
+        Text totalsText = new Text();
+        totalsText.setFont(Font.font("Segoe UI", FontWeight.BOLD, 18));
+        totalsText.setFill(Color.WHITE);
+        
+        Text topCategoryText = new Text();
+        topCategoryText.setFont(Font.font("Segoe UI", 14));
+        topCategoryText.setFill(Color.WHITE.deriveColor(0, 1, 1, 0.8));
+        
+        Runnable updatePeriod = () -> {
+            LocalDate from = fromPicker.getValue();
+            LocalDate to = toPicker.getValue();
+            if (from == null || to == null || to.isBefore(from)) {
+                totalsText.setText("Pick a valid date range");
+                topCategoryText.setText("");
+                return;
+            }
+            
+            long fromDay = from.toEpochDay();
+            long toDay = to.toEpochDay();
+            double income = TransactionTable.toAmount(
+                balances.rangeSum(TransactionTable.INCOME, DailyBalanceIndex.ALL_CATEGORIES, fromDay, toDay));
+            double expense = TransactionTable.toAmount(
+                balances.rangeSum(TransactionTable.EXPENSE, DailyBalanceIndex.ALL_CATEGORIES, fromDay, toDay));
+            totalsText.setText(String.format("Income: ₹%,.0f    Expenses: ₹%,.0f    Net: ₹%+,.0f",
+                income, expense, income - expense));
+            
+            short topCategory = -1;
+            long topAmount = 0;
+            for (short id = 0; id < transactions.categoryCount(); id++) {
+                long amount = balances.rangeSum(TransactionTable.EXPENSE, id, fromDay, toDay);
+                if (amount > topAmount) {
+                    topAmount = amount;
+                    topCategory = id;
+                }
+            }
+            topCategoryText.setText(topCategory < 0 ? "No expenses in this period" :
+                String.format("Top category: %s (₹%,.0f)", transactions.categoryName(topCategory),
+                    TransactionTable.toAmount(topAmount)));
+        };
+        
+        fromPicker.valueProperty().addListener((obs, oldV, newV) -> updatePeriod.run());
+        toPicker.valueProperty().addListener((obs, oldV, newV) -> updatePeriod.run());
+        bindings.add(snapshot -> updatePeriod.run());
+        
+        card.getChildren().addAll(pickers, totalsText, topCategoryText);
         
         return card;
     }
 
-    private VBox createDetailedCharts() {
+    private VBox createDetailedCharts(List<java.util.function.Consumer<AnalyticsSnapshot>> bindings) {
         VBox charts = new VBox(30);
         
         // Monthly trend chart
@@ -1288,7 +4449,7 @@ public class ModernFinanceApp extends Application {
         LineChart<String, Number> monthlyChart = new LineChart<>(new CategoryAxis(), new NumberAxis());
         monthlyChart.setPrefSize(800, 400);
         monthlyChart.setStyle("-fx-background-color: transparent;");
-        updateMonthlyTrendChart(monthlyChart);
+        bindings.add(snapshot -> updateMonthlyTrendChart(monthlyChart, snapshot));
         monthlyTrendCard.getChildren().add(monthlyChart);
         
         charts.getChildren().add(monthlyTrendCard);
@@ -1296,7 +4457,7 @@ public class ModernFinanceApp extends Application {
         return charts;
     }
 
-    private void showBudget() {
+    private TabView buildBudgetView() {
         VBox budgetView = new VBox(30);
         budgetView.setPadding(new Insets(30));
         
@@ -1304,11 +4465,13 @@ public class ModernFinanceApp extends Application {
         title.setFont(Font.font("Segoe UI", FontWeight.BOLD, 32));
         title.setFill(Color.WHITE);
         
+        List<java.util.function.Consumer<AnalyticsSnapshot>> bindings = new ArrayList<>();
+        
         // Budget overview card
-        VBox budgetCard = createBudgetOverviewCard();
+        VBox budgetCard = createBudgetOverviewCard(bindings);
         
         // Budget categories
-        VBox categoriesCard = createBudgetCategoriesCard();
+        VBox categoriesCard = createBudgetCategoriesCard(bindings);
         
         budgetView.getChildren().addAll(title, budgetCard, categoriesCard);
         
@@ -1316,10 +4479,13 @@ public class ModernFinanceApp extends Application {
         scroll.setFitToWidth(true);
         scroll.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
         
-        updateContentWithAnimation(scroll);
+        return new TabView(scroll, () -> {
+            AnalyticsSnapshot snapshot = aggregates.snapshot(LocalDate.now());
+            bindings.forEach(binding -> binding.accept(snapshot));
+        });
     }
 
-    private VBox createBudgetOverviewCard() {
+    private VBox createBudgetOverviewCard(List<java.util.function.Consumer<AnalyticsSnapshot>> bindings) {
         VBox card = new VBox(20);
         card.setPadding(new Insets(30));
         card.setStyle("-fx-background-color: rgba(255, 255, 255, 0.1); " +
@@ -1330,35 +4496,29 @@ public class ModernFinanceApp extends Application {
         cardTitle.setFont(Font.font("Segoe UI", FontWeight.BOLD, 24));
         cardTitle.setFill(Color.WHITE);
         
-        // Budget progress
-        double monthlyExpenses = calculateMonthlyExpenses();
-        double budgetUsed = (monthlyExpenses / monthlyBudget) * 100;
-        
         HBox budgetInfo = new HBox(40);
         budgetInfo.setAlignment(Pos.CENTER_LEFT);
         
         VBox budgetStats = new VBox(10);
-        Text budgetAmount = new Text("Budget: ₹" + String.format("%.0f", monthlyBudget));
+        Text budgetAmount = new Text();
         budgetAmount.setFont(Font.font("Segoe UI", FontWeight.BOLD, 20));
         budgetAmount.setFill(Color.WHITE);
         
-        Text spentAmount = new Text("Spent: ₹" + String.format("%.0f", monthlyExpenses));
+        Text spentAmount = new Text();
         spentAmount.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 18));
         spentAmount.setFill(Color.WHITE.deriveColor(0, 1, 1, 0.8));
         
-        Text remainingAmount = new Text("Remaining: ₹" + String.format("%.0f", monthlyBudget - monthlyExpenses));
+        Text remainingAmount = new Text();
         remainingAmount.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 18));
-        remainingAmount.setFill(budgetUsed > 100 ? Color.RED : Color.LIGHTGREEN);
         
         budgetStats.getChildren().addAll(budgetAmount, spentAmount, remainingAmount);
         
         // Progress bar
-        ProgressBar progressBar = new ProgressBar(Math.min(budgetUsed / 100, 1.0));
+        ProgressBar progressBar = new ProgressBar(0);
         progressBar.setPrefWidth(300);
         progressBar.setPrefHeight(20);
-        progressBar.setStyle("-fx-accent: " + (budgetUsed > 100 ? "#ef4444" : "#10b981") + ";");
         
-        Text progressText = new Text(String.format("%.1f%% used", budgetUsed));
+        Text progressText = new Text();
         progressText.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 16));
         progressText.setFill(Color.WHITE);
         
@@ -1367,6 +4527,20 @@ public class ModernFinanceApp extends Application {
         
         budgetInfo.getChildren().addAll(budgetStats, progressSection);
         
+        // Budget progress
+        bindings.add(snapshot -> {
+            double monthlyExpenses = snapshot.monthlyExpenses();
+            double budgetUsed = (monthlyExpenses / monthlyBudget) * 100;
+            
+            budgetAmount.setText("Budget: ₹" + String.format("%.0f", monthlyBudget));
+            spentAmount.setText("Spent: ₹" + String.format("%.0f", monthlyExpenses));
+            remainingAmount.setText("Remaining: ₹" + String.format("%.0f", monthlyBudget - monthlyExpenses));
+            remainingAmount.setFill(budgetUsed > 100 ? Color.RED : Color.LIGHTGREEN);
+            progressBar.setProgress(Math.min(budgetUsed / 100, 1.0));
+            progressBar.setStyle("-fx-accent: " + (budgetUsed > 100 ? "#ef4444" : "#10b981") + ";");
+            progressText.setText(String.format("%.1f%% used", budgetUsed));
+        });
+        
         Button setBudgetBtn = createModernButton("Update Budget", "#6366f1", true);
         setBudgetBtn.setPrefWidth(200);
         setBudgetBtn.setOnAction(e -> showBudgetDialog());
@@ -1376,7 +4550,7 @@ public class ModernFinanceApp extends Application {
         return card;
     }
 
-    private VBox createBudgetCategoriesCard() {
+    private VBox createBudgetCategoriesCard(List<java.util.function.Consumer<AnalyticsSnapshot>> bindings) {
         VBox card = new VBox(20);
         card.setPadding(new Insets(30));
         card.setStyle("-fx-background-color: rgba(255, 255, 255, 0.1); " +
@@ -1389,10 +4563,13 @@ public class ModernFinanceApp extends Application {
         
         VBox categoriesList = new VBox(15);
         
-        Map<String, Double> categoryTotals = calculateCategoryTotals();
-        categoryTotals.forEach((category, amount) -> {
-            HBox categoryRow = createCategoryBudgetRow(category, amount);
-            categoriesList.getChildren().add(categoryRow);
+        // One row per category with spending; there are only a handful, so they are simply rebuilt
+        bindings.add(snapshot -> {
+            categoriesList.getChildren().clear();
+            snapshot.categoryExpenses().forEach((category, amount) -> {
+                HBox categoryRow = createCategoryBudgetRow(category, amount, snapshot.monthlyExpenses());
+                categoriesList.getChildren().add(categoryRow);
+            });
         });
         
         card.getChildren().addAll(cardTitle, categoriesList);
@@ -1400,7 +4577,7 @@ public class ModernFinanceApp extends Application {
         return card;
     }
 
-    private HBox createCategoryBudgetRow(String category, double amount) {
+    private HBox createCategoryBudgetRow(String category, double amount, double totalExpenses) {
         HBox row = new HBox(20);
         row.setAlignment(Pos.CENTER_LEFT);
         row.setPadding(new Insets(15));
@@ -1415,7 +4592,6 @@ public class ModernFinanceApp extends Application {
         categoryName.setFont(Font.font("Segoe UI", FontWeight.BOLD, 16));
         categoryName.setFill(Color.WHITE);
         
-        double totalExpenses = calculateMonthlyExpenses();
         double percentage = totalExpenses > 0 ? (amount / totalExpenses) * 100 : 0;
         Text categoryPercentage = new Text(String.format("%.1f%% of expenses", percentage));
         categoryPercentage.setFont(Font.font("Segoe UI", 14));
@@ -1435,7 +4611,7 @@ public class ModernFinanceApp extends Application {
         return row;
     }
 
-    private void showSettings() {
+    private TabView buildSettingsView() {
         VBox settingsView = new VBox(30);
         settingsView.setPadding(new Insets(30));
         
@@ -1452,7 +4628,7 @@ public class ModernFinanceApp extends Application {
         scroll.setFitToWidth(true);
         scroll.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
         
-        updateContentWithAnimation(scroll);
+        return new TabView(scroll, () -> {});
     }
 
     private VBox createSettingsCards() {
@@ -1475,7 +4651,17 @@ public class ModernFinanceApp extends Application {
         VBox appearanceCard = createSettingsCard("Appearance", 
             "Customize the look and feel of the application");
         
-        cards.getChildren().addAll(profileCard, dataCard, appearanceCard);
+        // Performance diagnostics
+        VBox performanceCard = createSettingsCard("Performance", 
+            "Background animations pause while the window is minimised or unfocused");
+        
+        Text animationCount = new Text();
+        animationCount.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 14));
+        animationCount.setFill(Color.WHITE);
+        animationCount.textProperty().bind(animations.liveCountProperty().asString("Live animations: %d"));
+        performanceCard.getChildren().add(animationCount);
+        
+        cards.getChildren().addAll(profileCard, dataCard, appearanceCard, performanceCard);
         
         return cards;
     }
@@ -1502,6 +4688,8 @@ public class ModernFinanceApp extends Application {
 
     // ADD TRANSACTION DIALOG WITH MODERN DESIGN
     private void showAddTransactionDialog() {
+        if (!checkEditable()) return;
+        
         Stage dialog = new Stage();
         dialog.initModality(Modality.APPLICATION_MODAL);
         dialog.initOwner(primaryStage);
@@ -1675,11 +4863,13 @@ public class ModernFinanceApp extends Application {
             double amount = Double.parseDouble(amountField.getText());
             String note = noteField.getText();
             LocalDate date = datePicker.getValue();
+            if (!TransactionTable.isSupported(date)) {
+                showNotification("Please pick a date between the years 1 and 9999", "#ef4444");
+                return false;
+            }
             
             Transaction transaction = new Transaction(date, type, category, Math.abs(amount), note);
-            transactions.add(0, transaction);
-            saveUserTransactions();
-            updateAllStats();
+            addTransaction(transaction);
             
             showNotification("Transaction added successfully!", "#10b981");
             return true;
@@ -1690,120 +4880,90 @@ public class ModernFinanceApp extends Application {
     }
 
     private void showNotification(String message, String color) {
-        // Create notification popup
-        Label notification = new Label(message);
-        notification.setTextFill(Color.WHITE);
-        notification.setFont(Font.font("Segoe UI", FontWeight.BOLD, 14));
-        notification.setPadding(new Insets(15, 25, 15, 25));
-        notification.setStyle("-fx-background-color: " + color + "; " +
-                             "-fx-background-radius: 25; " +
-                             "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.3), 10, 0, 0, 5);");
-        
-        StackPane notificationContainer = new StackPane(notification);
-        notificationContainer.setAlignment(Pos.TOP_CENTER);
-        notificationContainer.setPadding(new Insets(30));
-        notificationContainer.setMouseTransparent(true);
-        
-        // Add to root pane temporarily
-        StackPane rootStack = new StackPane();
-        rootStack.getChildren().addAll(rootPane, notificationContainer);
-        
-        Scene currentScene = primaryStage.getScene();
-        currentScene.setRoot(rootStack);
-        
-        // Animation
-        notification.setTranslateY(-100);
-        notification.setOpacity(0);
-        
-        Timeline showNotification = new Timeline(
-            new KeyFrame(Duration.ZERO, 
-                new KeyValue(notification.translateYProperty(), -100),
-                new KeyValue(notification.opacityProperty(), 0)),
-            new KeyFrame(Duration.seconds(0.5), 
-                new KeyValue(notification.translateYProperty(), 0),
-                new KeyValue(notification.opacityProperty(), 1)),
-            new KeyFrame(Duration.seconds(2.5), 
-                new KeyValue(notification.translateYProperty(), 0),
-                new KeyValue(notification.opacityProperty(), 1)),
-            new KeyFrame(Duration.seconds(3), 
-                new KeyValue(notification.translateYProperty(), -100),
-                new KeyValue(notification.opacityProperty(), 0))
-        );
-        
-        showNotification.setOnFinished(e -> currentScene.setRoot(rootPane));
-        showNotification.play();
+        notifications.show(message, color);
+    }
+
+    // Dashboard widgets are updated in place, so nothing here rebuilds the scene graph
+    private void applyRefresh(int components) {
+        if ((components & RefreshScheduler.STATS) != 0) {
+            updateAllStats();
+        }
+        if ((components & RefreshScheduler.EXPENSE_CHART) != 0) {
+            updateExpenseChart();
+        }
+        if ((components & RefreshScheduler.TREND_CHART) != 0) {
+            updateTrendChart();
+        }
+        if ((components & RefreshScheduler.RECENT) != 0) {
+            updateRecentTransactions();
+        }
+        if ((components & RefreshScheduler.TRANSACTIONS) != 0) {
+            refreshVisibleRows();
+        }
+        markViewsStale();
+    }
+
+    // Which parts of the UI a change to this (still indexed) row can show up in
+    private int affectedComponents(int row) {
+        int components = RefreshScheduler.STATS | RefreshScheduler.TRANSACTIONS;
+        if (transactions.type(row) == TransactionTable.EXPENSE) {
+            components |= RefreshScheduler.EXPENSE_CHART;
+        }
+        long day = transactions.epochDay(row);
+        long today = LocalDate.now().toEpochDay();
+        if (day > today - 7 && day <= today) {
+            components |= RefreshScheduler.TREND_CHART;
+        }
+        int size = dateIndex.size();
+        if (size <= RECENT_COUNT || day >= transactions.epochDay(dateIndex.row(size - RECENT_COUNT))) {
+            components |= RefreshScheduler.RECENT;
+        }
+        return components;
     }
 
     private void updateAllStats() {
-        double totalIncome = transactions.stream()
-                .filter(t -> "Income".equalsIgnoreCase(t.getType()))
-                .mapToDouble(Transaction::getAmount).sum();
+        if (incomeLabel == null) return;
+        
+        // Skeleton values until the totals are known
+        if (loading && !progressiveTotals) {
+            incomeLabel.setText("Income\n₹ ...");
+            expenseLabel.setText("Expenses\n₹ ...");
+            balanceLabel.setText("Balance\n₹ ...");
+            return;
+        }
         
-        double totalExpense = transactions.stream()
-                .filter(t -> "Expense".equalsIgnoreCase(t.getType()))
-                .mapToDouble(Transaction::getAmount).sum();
+        double totalIncome = TransactionTable.toAmount(aggregates.totalIncome());
+        double totalExpense = TransactionTable.toAmount(aggregates.totalExpense());
         
         incomeLabel.setText("Income\n₹" + String.format("%,.0f", totalIncome));
         expenseLabel.setText("Expenses\n₹" + String.format("%,.0f", totalExpense));
         balanceLabel.setText("Balance\n₹" + String.format("%+,.0f", totalIncome - totalExpense));
-        
-        updateExpenseChart();
-        updateTrendChart();
-        updateRecentTransactions();
-        
-        // Refresh current view if it's dashboard
-        if ("Dashboard".equals(currentTab)) {
-            showDashboard();
-        }
     }
 
     private void updateExpenseChart() {
-        if (expenseChart == null) return;
-        
-        Map<String, Double> categoryTotals = calculateCategoryTotals();
+        if (expenseSlices == null) return;
         
-        expenseChart.getData().clear();
-        if (categoryTotals.isEmpty()) {
-            expenseChart.getData().add(new PieChart.Data("No expenses yet", 1));
-        } else {
-            categoryTotals.forEach((category, amount) -> {
-                PieChart.Data slice = new PieChart.Data(category + " (₹" + String.format("%.0f", amount) + ")", amount);
-                expenseChart.getData().add(slice);
-            });
-        }
+        expenseSlices.update(calculateCategoryTotals());
     }
 
     private void updateTrendChart() {
         if (trendChart == null) return;
         
-        trendChart.getData().clear();
-        
-        XYChart.Series<String, Number> incomeSeries = new XYChart.Series<>();
-        incomeSeries.setName("Income");
-        
-        XYChart.Series<String, Number> expenseSeries = new XYChart.Series<>();
-        expenseSeries.setName("Expenses");
-        
         LocalDate now = LocalDate.now();
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd");
         
+        List<String> days = new ArrayList<>(7);
+        double[] dailyIncome = new double[7];
+        double[] dailyExpense = new double[7];
         for (int i = 6; i >= 0; i--) {
             LocalDate date = now.minusDays(i);
-            String dateStr = date.format(formatter);
-            
-            double dailyIncome = transactions.stream()
-                    .filter(t -> "Income".equalsIgnoreCase(t.getType()) && t.getDate().equals(date))
-                    .mapToDouble(Transaction::getAmount).sum();
-            
-            double dailyExpense = transactions.stream()
-                    .filter(t -> "Expense".equalsIgnoreCase(t.getType()) && t.getDate().equals(date))
-                    .mapToDouble(Transaction::getAmount).sum();
-            
-            incomeSeries.getData().add(new XYChart.Data<>(dateStr, dailyIncome));
-            expenseSeries.getData().add(new XYChart.Data<>(dateStr, dailyExpense));
+            days.add(date.format(formatter));
+            dailyIncome[6 - i] = TransactionTable.toAmount(aggregates.dayTotal(TransactionTable.INCOME, date));
+            dailyExpense[6 - i] = TransactionTable.toAmount(aggregates.dayTotal(TransactionTable.EXPENSE, date));
         }
         
-        trendChart.getData().addAll(incomeSeries, expenseSeries);
+        SeriesSync.points(SeriesSync.series(trendChart, 0, "Income"), days, dailyIncome);
+        SeriesSync.points(SeriesSync.series(trendChart, 1, "Expenses"), days, dailyExpense);
     }
 
     private void updateRecentTransactions() {
@@ -1811,7 +4971,16 @@ public class ModernFinanceApp extends Application {
         
         transactionsList.getChildren().clear();
         
-        if (transactions.isEmpty()) {
+        if (loading) {
+            Label loadingLabel = new Label(loadedRows == 0 ? "Loading transactions..." :
+                String.format("Loading transactions... (%,d)", loadedRows));
+            loadingLabel.setTextFill(Color.WHITE.deriveColor(0, 1, 1, 0.7));
+            loadingLabel.setFont(Font.font("Segoe UI", 16));
+            transactionsList.getChildren().add(loadingLabel);
+            return;
+        }
+        
+        if (transactions.liveCount() == 0) {
             Label emptyLabel = new Label("No transactions yet");
             emptyLabel.setTextFill(Color.WHITE.deriveColor(0, 1, 1, 0.7));
             emptyLabel.setFont(Font.font("Segoe UI", 16));
@@ -1819,68 +4988,68 @@ public class ModernFinanceApp extends Application {
             return;
         }
         
-        List<Transaction> recentTransactions = transactions.stream()
-                .sorted((t1, t2) -> t2.getDate().compareTo(t1.getDate()))
-                .limit(5)
-                .collect(Collectors.toList());
-        
-        for (Transaction transaction : recentTransactions) {
-            HBox transactionRow = createTransactionRow(transaction);
+        // The date index tail is already newest first, with later rows winning ties
+        int last = dateIndex.size() - 1;
+        for (int position = last; position >= 0 && position > last - RECENT_COUNT; position--) {
+            HBox transactionRow = createTransactionRow(transactions.get(dateIndex.row(position)));
             transactionsList.getChildren().add(transactionRow);
         }
     }
 
-    private void updateAllTransactionsList(VBox container) {
-        container.getChildren().clear();
+    // Newest first, narrowed by the Transactions tab filters
+    private void refreshVisibleRows() {
+        int type = FilterIndex.ANY;
+        if (typeFilterValue != null && !"All".equals(typeFilterValue)) {
+            type = "Income".equals(typeFilterValue) ? TransactionTable.INCOME : TransactionTable.EXPENSE;
+        }
         
-        if (transactions.isEmpty()) {
-            Label emptyLabel = new Label("No transactions yet");
-            emptyLabel.setTextFill(Color.WHITE.deriveColor(0, 1, 1, 0.7));
-            emptyLabel.setFont(Font.font("Segoe UI", 16));
-            container.getChildren().add(emptyLabel);
-            return;
+        int category = FilterIndex.ANY;
+        if (categoryFilterValue != null && !"All Categories".equals(categoryFilterValue)) {
+            Short id = transactions.categoryIdOf(categoryFilterValue);
+            if (id == null) {
+                visibleRows.setRows(new int[0], 0);
+                return;
+            }
+            category = id;
         }
         
-        for (Transaction transaction : transactions) {
-            HBox transactionRow = createTransactionRow(transaction);
-            container.getChildren().add(transactionRow);
+        long fromDay = dateFromFilter == null ? Long.MIN_VALUE : dateFromFilter.toEpochDay();
+        long toDay = dateToFilter == null ? Long.MAX_VALUE : dateToFilter.toEpochDay();
+        int[] rows = filters.query(type, category, fromDay, toDay);
+        int count = rows.length;
+        if (!searchQuery.isBlank()) {
+            BitSet hits = new BitSet();
+            for (int row : textIndex.search(searchQuery)) {
+                hits.set(row);
+            }
+            count = 0;
+            for (int row : rows) {
+                if (hits.get(row)) {
+                    rows[count++] = row;
+                }
+            }
         }
+        visibleRows.setRows(rows, count);
     }
 
-    private void updateMonthlyTrendChart(LineChart<String, Number> chart) {
-        chart.getData().clear();
-        
-        XYChart.Series<String, Number> series = new XYChart.Series<>();
-        series.setName("Monthly Expenses");
-        
-        LocalDate now = LocalDate.now();
+    private void updateMonthlyTrendChart(LineChart<String, Number> chart, AnalyticsSnapshot snapshot) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM yyyy");
         
-        for (int i = 5; i >= 0; i--) {
-            LocalDate monthDate = now.minusMonths(i);
-            String monthStr = monthDate.format(formatter);
-            
-            LocalDate monthStart = monthDate.withDayOfMonth(1);
-            LocalDate monthEnd = monthStart.plusMonths(1).minusDays(1);
-            
-            double monthlyExpense = transactions.stream()
-                    .filter(t -> "Expense".equalsIgnoreCase(t.getType()) && 
-                               !t.getDate().isBefore(monthStart) && 
-                               !t.getDate().isAfter(monthEnd))
-                    .mapToDouble(Transaction::getAmount).sum();
-            
-            series.getData().add(new XYChart.Data<>(monthStr, monthlyExpense));
+        List<String> months = new ArrayList<>(AnalyticsSnapshot.TREND_MONTHS);
+        double[] expenses = new double[AnalyticsSnapshot.TREND_MONTHS];
+        for (int i = 0; i < AnalyticsSnapshot.TREND_MONTHS; i++) {
+            months.add(snapshot.trendMonth(i).format(formatter));
+            expenses[i] = snapshot.trendExpense(i);
         }
         
-        chart.getData().add(series);
+        SeriesSync.points(SeriesSync.series(chart, 0, "Monthly Expenses"), months, expenses);
     }
 
     private HBox createTransactionRow(Transaction transaction) {
         HBox row = new HBox(20);
         row.setAlignment(Pos.CENTER_LEFT);
         row.setPadding(new Insets(15));
-        row.setStyle("-fx-background-color: rgba(255, 255, 255, 0.05); " +
-                     "-fx-background-radius: 12;");
+        row.setStyle(ROW_STYLE);
         
         // Category icon
         Text icon = new Text(getCategoryIcon(transaction.getCategory()));
@@ -1892,7 +5061,7 @@ public class ModernFinanceApp extends Application {
         category.setFont(Font.font("Segoe UI", FontWeight.BOLD, 16));
         category.setFill(Color.WHITE);
         
-        Text date = new Text(transaction.getDate().format(DateTimeFormatter.ofPattern("MMM dd, yyyy")));
+        Text date = new Text(transaction.getDate().format(ROW_DATE_FORMAT));
         date.setFont(Font.font("Segoe UI", 12));
         date.setFill(Color.WHITE.deriveColor(0, 1, 1, 0.7));
         
@@ -1928,23 +5097,97 @@ public class ModernFinanceApp extends Application {
                           "-fx-background-radius: 15; " +
                           "-fx-cursor: hand;");
         deleteBtn.setOnAction(e -> {
-            transactions.remove(transaction);
-            saveUserTransactions();
-            updateAllStats();
+            if (!checkEditable()) return;
+            deleteTransaction(transaction);
             showNotification("Transaction deleted", "#ef4444");
         });
         
         row.getChildren().addAll(icon, details, spacer, amount, deleteBtn);
         
         // Hover effect
-        row.setOnMouseEntered(e -> 
-            row.setStyle("-fx-background-color: rgba(255, 255, 255, 0.1); -fx-background-radius: 12;"));
-        row.setOnMouseExited(e -> 
-            row.setStyle("-fx-background-color: rgba(255, 255, 255, 0.05); -fx-background-radius: 12;"));
+        row.setOnMouseEntered(e -> row.setStyle(ROW_HOVER_STYLE));
+        row.setOnMouseExited(e -> row.setStyle(ROW_STYLE));
         
         return row;
     }
 
+    // Recycled row for the Transactions list; nodes are built once and only their text changes
+    private final class TransactionCell extends ListCell<Integer> {
+        private final HBox row = new HBox(20);
+        private final Text icon = new Text();
+        private final Text category = new Text();
+        private final Text note = new Text();
+        private final Text date = new Text();
+        private final Text amount = new Text();
+        private final Button deleteBtn = new Button("×");
+        
+        TransactionCell() {
+            row.setAlignment(Pos.CENTER_LEFT);
+            row.setPadding(new Insets(12, 15, 12, 15));
+            row.setStyle(ROW_STYLE);
+            
+            icon.setFont(Font.font(24));
+            category.setFont(Font.font("Segoe UI", FontWeight.BOLD, 16));
+            category.setFill(Color.WHITE);
+            note.setFont(Font.font("Segoe UI", 11));
+            note.setFill(Color.WHITE.deriveColor(0, 1, 1, 0.6));
+            date.setFont(Font.font("Segoe UI", 12));
+            date.setFill(Color.WHITE.deriveColor(0, 1, 1, 0.7));
+            amount.setFont(Font.font("Segoe UI", FontWeight.BOLD, 16));
+            
+            VBox details = new VBox(3, category, note, date);
+            Region spacer = new Region();
+            HBox.setHgrow(spacer, Priority.ALWAYS);
+            
+            deleteBtn.setPrefSize(25, 25);
+            deleteBtn.setFont(Font.font("Segoe UI", FontWeight.BOLD, 14));
+            deleteBtn.setStyle("-fx-background-color: rgba(239, 68, 68, 0.3); " +
+                              "-fx-text-fill: #ef4444; " +
+                              "-fx-background-radius: 15; " +
+                              "-fx-cursor: hand;");
+            deleteBtn.setOnAction(e -> {
+                Integer current = getItem();
+                if (current != null && transactions.isLive(current) && checkEditable()) {
+                    deleteTransaction(transactions.get(current));
+                    showNotification("Transaction deleted", "#ef4444");
+                }
+            });
+            
+            row.getChildren().addAll(icon, details, spacer, amount, deleteBtn);
+            row.setOnMouseEntered(e -> row.setStyle(ROW_HOVER_STYLE));
+            row.setOnMouseExited(e -> row.setStyle(ROW_STYLE));
+            
+            setText(null);
+        }
+        
+        @Override
+        protected void updateItem(Integer rowId, boolean empty) {
+            super.updateItem(rowId, empty);
+            if (empty || rowId == null || !transactions.isLive(rowId)) {
+                setGraphic(null);
+                return;
+            }
+            
+            String categoryName = transactions.categoryName(transactions.categoryId(rowId));
+            String noteText = transactions.note(rowId);
+            icon.setText(getCategoryIcon(categoryName));
+            category.setText(categoryName);
+            note.setText(noteText.trim());
+            date.setText(LocalDate.ofEpochDay(transactions.epochDay(rowId)).format(ROW_DATE_FORMAT));
+            
+            double value = TransactionTable.toAmount(transactions.amount(rowId));
+            if (transactions.type(rowId) == TransactionTable.INCOME) {
+                amount.setText("+₹" + String.format("%.2f", value));
+                amount.setFill(Color.LIGHTGREEN);
+            } else {
+                amount.setText("-₹" + String.format("%.2f", value));
+                amount.setFill(Color.SALMON);
+            }
+            
+            setGraphic(row);
+        }
+    }
+
     private String getCategoryIcon(String category) {
         switch (category.toLowerCase()) {
             case "food & dining": case "food": return "🍽️";
@@ -1962,146 +5205,365 @@ public class ModernFinanceApp extends Application {
     }
 
     // CALCULATION METHODS
-    private double calculateMonthlyIncome() {
-        LocalDate now = LocalDate.now();
-        LocalDate monthStart = now.withDayOfMonth(1);
-        
-        return transactions.stream()
-                .filter(t -> "Income".equalsIgnoreCase(t.getType()) && 
-                           !t.getDate().isBefore(monthStart) && 
-                           !t.getDate().isAfter(now))
-                .mapToDouble(Transaction::getAmount).sum();
+    private Map<String, Double> calculateCategoryTotals() {
+        return aggregates.categoryExpenses();
     }
 
-    private double calculateMonthlyExpenses() {
-        LocalDate now = LocalDate.now();
-        LocalDate monthStart = now.withDayOfMonth(1);
-        
-        return transactions.stream()
-                .filter(t -> "Expense".equalsIgnoreCase(t.getType()) && 
-                           !t.getDate().isBefore(monthStart) && 
-                           !t.getDate().isAfter(now))
-                .mapToDouble(Transaction::getAmount).sum();
+    // DATA PERSISTENCE
+    private void addTransaction(Transaction transaction) {
+        int row = transactions.append(transaction);
+        indexRow(row);
+        refresh.request(affectedComponents(row));
+        persistence.append(TransactionJournal.ADD, transactions.get(row));
     }
 
-    private double calculateWeeklyIncome() {
-        LocalDate now = LocalDate.now();
-        LocalDate weekStart = now.minusDays(7);
-        
-        return transactions.stream()
-                .filter(t -> "Income".equalsIgnoreCase(t.getType()) && 
-                           t.getDate().isAfter(weekStart))
-                .mapToDouble(Transaction::getAmount).sum();
+    private void deleteTransaction(Transaction transaction) {
+        int row = transaction.getRow();
+        if (transactions.isLive(row)) {
+            Transaction stored = transactions.get(row);
+            refresh.request(affectedComponents(row));
+            unindexRow(row);
+            transactions.delete(row);
+            persistence.append(TransactionJournal.DELETE, stored);
+        }
     }
 
-    private double calculateWeeklyExpenses() {
-        LocalDate now = LocalDate.now();
-        LocalDate weekStart = now.minusDays(7);
-        
-        return transactions.stream()
-                .filter(t -> "Expense".equalsIgnoreCase(t.getType()) && 
-                           t.getDate().isAfter(weekStart))
-                .mapToDouble(Transaction::getAmount).sum();
+    private static java.nio.file.Path userFile(String userId, String extension) {
+        return Paths.get(BASE_FOLDER, userId, userId + extension);
     }
 
-    private double calculateDailyAverage() {
-        LocalDate now = LocalDate.now();
-        LocalDate monthStart = now.withDayOfMonth(1);
-        long daysBetween = java.time.temporal.ChronoUnit.DAYS.between(monthStart, now) + 1;
-        
-        double monthlyExpenses = calculateMonthlyExpenses();
-        return daysBetween > 0 ? monthlyExpenses / daysBetween : 0;
+    // Identifies the exact snapshot and journal contents a saved rollup cube was built from
+    private static String storageStamp(String userId) {
+        StringBuilder stamp = new StringBuilder();
+        for (String extension : new String[] {".csv", ".fcol", ".journal"}) {
+            java.nio.file.Path file = userFile(userId, extension);
+            try {
+                stamp.append(Files.size(file)).append('@').append(Files.getLastModifiedTime(file).toMillis());
+            } catch (IOException e) {
+                stamp.append('-');
+            }
+            stamp.append(';');
+        }
+        return stamp.toString();
     }
 
-    private Map<String, Double> calculateCategoryTotals() {
-        return transactions.stream()
-                .filter(t -> "Expense".equalsIgnoreCase(t.getType()))
-                .collect(Collectors.groupingBy(
-                        Transaction::getCategory,
-                        Collectors.summingDouble(Transaction::getAmount)
-                ));
+    private void saveRollupCube() {
+        saveRollupCube(currentUserId);
     }
 
-    // DATA PERSISTENCE
-    private void saveUserTransactions() {
+    private void saveRollupCube(String userId) {
         try {
-            java.nio.file.Path userFolder = Paths.get(BASE_FOLDER, currentUserId);
-            if (!Files.exists(userFolder)) {
-                Files.createDirectories(userFolder);
-            }
-            
-            java.nio.file.Path userDataFile = Paths.get(userFolder.toString(), currentUserId + ".csv");
-            
-            List<String> csvLines = new ArrayList<>();
-            csvLines.add("date,type,category,amount,note");
-            
-            for (Transaction t : transactions) {
-                String line = String.join(",",
-                        t.getDate().toString(),
-                        escapeCommas(t.getType()),
-                        escapeCommas(t.getCategory()),
-                        String.valueOf(t.getAmount()),
-                        escapeCommas(t.getNote())
-                );
-                csvLines.add(line);
-            }
-            
-            Files.write(userDataFile, csvLines);
+            aggregates.save(userFile(userId, ".cube"), storageStamp(userId));
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    // Shows the dashboard shell straight away and streams the user's rows in from a background task
     private void loadUserTransactions() {
+        session.cancel();
+        session = tasks.newScope();
+        TaskRunner.Scope scope = session;
+        String userId = currentUserId;
+        
         transactions.clear();
+        aggregates.rebuild();
+        rebuildIndexes();
+        loading = true;
+        progressiveTotals = false;
+        loadedRows = 0;
+        refresh.request(RefreshScheduler.ALL);
+        
+        scope.submit("load " + userId, () -> readUserTransactions(userId, scope),
+            loaded -> finishLoad(userId, scope, loaded),
+            e -> {
+                e.printStackTrace();
+                loading = false;
+                showNotification("Could not load your transactions", "#ef4444");
+            });
+    }
+
+    // Background task: parses the snapshot into small tables and posts each one to the FX thread
+    private LoadedData readUserTransactions(String userId, TaskRunner.Scope scope) {
+        TransactionJournal userJournal = new TransactionJournal(userFile(userId, ".journal"));
+        List<TransactionJournal.Record> journalRecords = Collections.emptyList();
+        DeleteResolver deletes = new DeleteResolver();
+        int[] deleteRows = new int[0];
+        // Every delivered row, in delivery order, so the indexes can be built here instead of on the FX thread
+        TransactionTable loadedTable = new TransactionTable();
+        LoadedIndexes indexes = null;
+        List<String> losses = new ArrayList<>();
+        boolean sampleData = false;
+        boolean progressive = true;
+        boolean rewrite = false;
+        boolean readOnly = false;
         try {
-            java.nio.file.Path userFolder = Paths.get(BASE_FOLDER, currentUserId);
-            java.nio.file.Path userDataFile = Paths.get(userFolder.toString(), currentUserId + ".csv");
+            java.nio.file.Path userDataFile = userFile(userId, ".csv");
+            java.nio.file.Path binaryFile = userFile(userId, ".fcol");
             
-            if (!Files.exists(userDataFile)) {
-                addSampleData();
-                return;
+            if (BINARY_STORE && !Files.exists(binaryFile) && Files.exists(userDataFile)) {
+                reportSnapshotScan(ColumnarTransactionStore.convertCsv(userDataFile, binaryFile), losses);
             }
-            
-            List<String> lines = Files.readAllLines(userDataFile);
-            
-            for (int i = 1; i < lines.size(); i++) {
-                String line = lines.get(i);
-                if (line.trim().isEmpty()) continue;
-                
-                String[] parts = line.split(",", -1);
-                if (parts.length < 5) continue;
-                
+            ColumnarTransactionStore store = null;
+            if (Files.exists(binaryFile)) {
                 try {
-                    LocalDate date = LocalDate.parse(parts[0]);
-                    String type = unescapeCommas(parts[1]);
-                    String category = unescapeCommas(parts[2]);
-                    double amount = Double.parseDouble(parts[3]);
-                    String note = unescapeCommas(parts[4]);
-                    
-                    transactions.add(new Transaction(date, type, category, amount, note));
-                } catch (Exception e) {
-                    System.out.println("Skipping invalid line: " + line);
+                    store = ColumnarTransactionStore.open(binaryFile);
+                } catch (IOException e) {
+                    // Kept for manual recovery; the CSV snapshot, if any, is the next best copy
+                    java.nio.file.Path setAside = binaryFile.resolveSibling(binaryFile.getFileName() + ".corrupt");
+                    Files.move(binaryFile, setAside, StandardCopyOption.REPLACE_EXISTING);
+                    losses.add("The binary transaction store could not be read (" + e.getMessage() + ") and was moved to "
+                            + setAside.getFileName());
+                }
+            }
+            // With a usable saved cube the totals arrive in one step at the end; otherwise they are
+            // accumulated batch by batch so the stats fill in while loading
+            progressive = !RollupCube.matches(userFile(userId, ".cube"), storageStamp(userId));
+            boolean accumulate = progressive;
+            
+            long generation = 0;
+            boolean checksummed = false;
+            TransactionTable[] batch = { new TransactionTable() };
+            if (store == null && !Files.exists(userDataFile)) {
+                sampleData = losses.isEmpty();
+            } else if (store != null) {
+                generation = store.generation();
+                checksummed = store.checksummed();
+                int damagedRows = store.damagedRows();
+                if (damagedRows > 0) {
+                    // The rewrite below keeps only the rows that verified, so the damaged store is kept for manual recovery
+                    java.nio.file.Path copy = binaryFile.resolveSibling(binaryFile.getFileName() + ".corrupt");
+                    Files.copy(binaryFile, copy, StandardCopyOption.REPLACE_EXISTING);
+                    losses.add(damagedRows + " transactions in damaged blocks of the binary store were skipped; the store was copied to "
+                            + copy.getFileName());
+                }
+                for (int row = 0; row < store.size(); row++) {
+                    if (!store.intact(row)) continue;
+                    batch[0].append(store.epochDay(row), store.type(row), store.category(row), store.amount(row), store.note(row));
+                    loadedTable.append(store.epochDay(row), store.type(row), store.category(row), store.amount(row), store.note(row));
+                    deletes.add(TransactionTable.valueHash(store.epochDay(row), store.type(row), store.category(row),
+                            store.amount(row), store.note(row)));
+                    if (batch[0].size() == LOAD_BATCH_SIZE) {
+                        if (scope.isCancelled()) return null;
+                        deliverBatch(scope, batch[0], accumulate);
+                        batch[0] = new TransactionTable();
+                    }
                 }
+            } else {
+                TransactionCsvReader.Scan scan = TransactionCsvReader.read(userDataFile, true, false, false,
+                        new TransactionCsvReader.RowHandler() {
+                            @Override
+                            public void row(char op, Transaction transaction) {
+                                batch[0].append(transaction);
+                                loadedTable.append(transaction);
+                                deletes.add(TransactionTable.valueHash(transaction));
+                                if (batch[0].size() == LOAD_BATCH_SIZE) {
+                                    deliverBatch(scope, batch[0], accumulate);
+                                    batch[0] = new TransactionTable();
+                                }
+                            }
+
+                            @Override
+                            public boolean cancelled() {
+                                return scope.isCancelled();
+                            }
+                        });
+                generation = scan.generation;
+                checksummed = scan.checksummed;
+                reportSnapshotScan(scan, losses);
             }
+            if (scope.isCancelled()) return null;
+            deliverBatch(scope, batch[0], accumulate);
             
+            if (!sampleData) {
+                journalRecords = userJournal.read(generation, losses);
+                deleteRows = deletes.resolve(journalRecords);
+                replayJournal(loadedTable, journalRecords, deleteRows);
+                if (scope.isCancelled()) return null;
+                indexes = new LoadedIndexes(loadedTable);
+            }
+            rewrite = !sampleData && (!checksummed || !losses.isEmpty());
         } catch (IOException e) {
+            // Cancelling interrupts the task, which also closes any channel it was reading
+            if (scope.isCancelled()) return null;
             e.printStackTrace();
+            // The session is read-only, so the files stay as they are for another attempt
+            losses.add("Your saved transactions could not be read: " + e.getMessage());
+            rewrite = false;
+            readOnly = true;
+            // Only the snapshot rows that arrived are shown; the journal stays on disk for another attempt
+            journalRecords = Collections.emptyList();
+            indexes = null;
+        }
+        
+        return new LoadedData(userJournal, journalRecords, deleteRows, indexes, sampleData, progressive, rewrite,
+                readOnly, losses);
+    }
+
+    // Background task: applies the journal to the loader's copy of the table exactly as finishLoad will to
+    // the FX table. Each resolved delete is checked against the row here, where a search costs no frame
+    private static void replayJournal(TransactionTable table, List<TransactionJournal.Record> records, int[] deleteRows) {
+        for (int i = 0; i < records.size(); i++) {
+            TransactionJournal.Record record = records.get(i);
+            if (record.op == TransactionJournal.ADD) {
+                table.append(record.transaction);
+            } else if (record.op == TransactionJournal.DELETE) {
+                int row = deleteRows[i];
+                if (row >= 0 && !table.matches(row, record.transaction)) {
+                    // A hash collision; fall back to the search
+                    row = table.find(record.transaction);
+                }
+                if (row >= 0 && table.isLive(row)) {
+                    table.delete(row);
+                } else {
+                    row = -1;
+                }
+                deleteRows[i] = row;
+            }
+        }
+    }
+
+    private static void reportSnapshotScan(TransactionCsvReader.Scan scan, List<String> losses) {
+        if (scan.lostRecords > 0) {
+            losses.add(scan.lostRecords + " damaged transactions were skipped in the saved snapshot");
+        }
+    }
+
+    private void deliverBatch(TaskRunner.Scope scope, TransactionTable batch, boolean accumulate) {
+        scope.post(() -> {
+            progressiveTotals = accumulate;
+            for (int row = 0; row < batch.size(); row++) {
+                int appended = transactions.append(batch.epochDay(row), batch.typeName(batch.type(row)),
+                        batch.categoryName(batch.categoryId(row)), batch.amount(row), batch.note(row));
+                if (accumulate) {
+                    aggregates.added(appended);
+                }
+            }
+            loadedRows += batch.size();
+            refresh.request(RefreshScheduler.RECENT | (accumulate ?
+                    RefreshScheduler.STATS | RefreshScheduler.EXPENSE_CHART | RefreshScheduler.TREND_CHART : 0));
+        });
+    }
+
+    // FX thread: applies the journal, settles the aggregates and takes over the indexes the loader built
+    private void finishLoad(String userId, TaskRunner.Scope scope, LoadedData loaded) {
+        TransactionJournal userJournal = loaded.journal;
+        // Without a writer, checkEditable refuses every edit
+        if (!loaded.readOnly) {
+            persistence = new PersistenceWriter(userId, userJournal, scope, STORAGE_LANE, transactions::copy,
+                    error -> showNotification("Could not save your changes, retrying on the next edit", "#ef4444"));
+        }
+        boolean writeSnapshot = !loaded.readOnly
+                && (loaded.sampleData || loaded.rewrite || userJournal.needsCompaction());
+        if (loaded.sampleData) {
             addSampleData();
         }
+        for (int i = 0; i < loaded.journalRecords.size(); i++) {
+            TransactionJournal.Record record = loaded.journalRecords.get(i);
+            if (record.op == TransactionJournal.ADD) {
+                int row = transactions.append(record.transaction);
+                if (loaded.accumulated) aggregates.added(row);
+            } else if (record.op == TransactionJournal.DELETE) {
+                // Already checked against the loader's copy of the table
+                int row = loaded.deleteRows[i];
+                if (row >= 0 && transactions.isLive(row)) {
+                    if (loaded.accumulated) aggregates.removed(row);
+                    transactions.delete(row);
+                }
+            }
+        }
+        
+        // The saved cube was stamped with the journal too, so it is restored only after the journal is applied.
+        // It also still counts any rows recovery dropped
+        if (loaded.sampleData || !loaded.losses.isEmpty()
+                || !loaded.accumulated && !aggregates.restore(userFile(userId, ".cube"), storageStamp(userId))) {
+            aggregates.rebuild();
+        }
+        if (loaded.indexes != null) {
+            dateIndex.adopt(loaded.indexes.dateIndex);
+            balances.adopt(loaded.indexes.balances);
+            filters.adopt(loaded.indexes.filters);
+            textIndex.adopt(loaded.indexes.textIndex);
+        } else {
+            rebuildIndexes();
+        }
+        progressiveTotals = true;
+        
+        if (writeSnapshot) {
+            persistence.snapshot();
+        }
+        loading = false;
+        refresh.request(RefreshScheduler.ALL);
+        
+        if (loaded.readOnly) {
+            loaded.losses.forEach(loss -> LOG.warning("Recovery: " + loss));
+            showNotification(String.join("; ", loaded.losses) + ". Changes are disabled until you log in again", "#ef4444");
+        } else if (!loaded.losses.isEmpty()) {
+            loaded.losses.forEach(loss -> LOG.warning("Recovery: " + loss));
+            showNotification("Recovered your data: " + String.join("; ", loaded.losses), "#f59e0b");
+        }
+    }
+
+    // Edits would race the loader or the snapshot writer, so they wait until loading is done. After a failed
+    // load there is no writer and they could not be saved, so they are refused
+    private boolean checkEditable() {
+        if (loading) {
+            showNotification("Still loading your transactions...", "#f59e0b");
+            return false;
+        }
+        if (persistence == null) {
+            showNotification("Your transactions could not be loaded, so changes are disabled", "#ef4444");
+            return false;
+        }
+        return true;
+    }
+
+    private void indexRow(int row) {
+        aggregates.added(row);
+        dateIndex.added(row);
+        balances.added(row);
+        filters.added(row);
+        textIndex.added(row);
+    }
+
+    // Must run while the row is still live
+    private void unindexRow(int row) {
+        aggregates.removed(row);
+        // The filter index needs the row's date-index position, so it goes first
+        filters.removed(row);
+        dateIndex.removed(row);
+        balances.removed(row);
+        textIndex.removed(row);
+    }
+
+    // Aggregates are restored or rebuilt separately, since they may come from the saved cube
+    private void rebuildIndexes() {
+        dateIndex.rebuild();
+        balances.rebuild();
+        filters.rebuild();
+        textIndex.rebuild();
+    }
+
+    private static String toCsvLine(Transaction t) {
+        return String.join(",",
+                t.getDate().toString(),
+                escapeCommas(t.getType()),
+                escapeCommas(t.getCategory()),
+                String.valueOf(t.getAmount()),
+                escapeCommas(t.getNote())
+        );
     }
 
     private void addSampleData() {
         LocalDate today = LocalDate.now();
-        transactions.addAll(Arrays.asList(
+        Arrays.asList(
             new Transaction(today, "Income", "Income", 45000, "Monthly salary"),
             new Transaction(today.minusDays(1), "Expense", "Food & Dining", 350, "Restaurant dinner"),
             new Transaction(today.minusDays(2), "Expense", "Transportation", 120, "Uber ride"),
             new Transaction(today.minusDays(3), "Expense", "Shopping", 2500, "Grocery shopping"),
             new Transaction(today.minusDays(4), "Expense", "Entertainment", 800, "Movie night"),
             new Transaction(today.minusDays(5), "Expense", "Bills & Utilities", 1500, "Internet bill")
-        ));
-        saveUserTransactions();
+        ).forEach(transactions::append);
     }
 
     // AUTHENTICATION
@@ -2113,28 +5575,18 @@ public class ModernFinanceApp extends Application {
         
         animateButton(loginBtn, "Logging in...");
         
-        Thread loginThread = new Thread(() -> {
-            try {
-                Thread.sleep(1000); // Simulate network delay
-                if (authenticateUser(userId, password)) {
-                    Platform.runLater(() -> {
-                        currentUserId = userId;
-                        showMainApp();
-                    });
-                } else {
-                    Platform.runLater(() -> {
-                        showMessage(messageLabel, "Invalid credentials", true);
-                        resetButton(loginBtn, "Login");
-                    });
-                }
-            } catch (Exception e) {
-                Platform.runLater(() -> {
-                    showMessage(messageLabel, "Login failed: " + e.getMessage(), true);
-                    resetButton(loginBtn, "Login");
-                });
+        submitAuthTask(loginBtn, "Login", messageLabel, "login", () -> authenticateUser(userId, password), authenticated -> {
+            if (authenticated) {
+                currentUserId = userId;
+                showMainApp();
+            } else {
+                showMessage(messageLabel, "Invalid credentials", true);
+                resetButton(loginBtn, "Login");
             }
+        }, e -> {
+            showMessage(messageLabel, "Login failed: " + e.getMessage(), true);
+            resetButton(loginBtn, "Login");
         });
-        loginThread.start();
     }
 
     private void handleRegister(String userId, String password, String confirmPassword, 
@@ -2161,61 +5613,58 @@ public class ModernFinanceApp extends Application {
         
         animateButton(createBtn, "Creating...");
         
-        Thread registerThread = new Thread(() -> {
-            try {
-                Thread.sleep(1000); // Simulate network delay
-                String result = registerUser(userId, password);
-                Platform.runLater(() -> {
-                    if (result.equals("SUCCESS")) {
-                        showMessage(messageLabel, "Account created successfully!", false);
-                        
-                        Timeline switchDelay = new Timeline(new KeyFrame(Duration.seconds(1.5), evt -> {
-                            // Switch to login form
-                            Timeline hideRegister = new Timeline(
-                                new KeyFrame(Duration.ZERO, new KeyValue(registerForm.opacityProperty(), 1)),
-                                new KeyFrame(Duration.seconds(0.3), new KeyValue(registerForm.opacityProperty(), 0))
-                            );
-                            hideRegister.setOnFinished(event -> {
-                                registerForm.setVisible(false);
-                                loginForm.setVisible(true);
-                                Timeline showLogin = new Timeline(
-                                    new KeyFrame(Duration.ZERO, new KeyValue(loginForm.opacityProperty(), 0)),
-                                    new KeyFrame(Duration.seconds(0.3), new KeyValue(loginForm.opacityProperty(), 1))
-                                );
-                                showLogin.play();
-                                resetButton(createBtn, "Create Account");
-                            });
-                            hideRegister.play();
-                        }));
-                        switchDelay.play();
-                    } else {
-                        showMessage(messageLabel, result, true);
+        submitAuthTask(createBtn, "Create Account", messageLabel, "register", () -> registerUser(userId, password), result -> {
+            if (result.equals("SUCCESS")) {
+                showMessage(messageLabel, "Account created successfully!", false);
+                
+                Timeline switchDelay = new Timeline(new KeyFrame(Duration.seconds(1.5), evt -> {
+                    // Switch to login form
+                    Timeline hideRegister = new Timeline(
+                        new KeyFrame(Duration.ZERO, new KeyValue(registerForm.opacityProperty(), 1)),
+                        new KeyFrame(Duration.seconds(0.3), new KeyValue(registerForm.opacityProperty(), 0))
+                    );
+                    hideRegister.setOnFinished(event -> {
+                        registerForm.setVisible(false);
+                        loginForm.setVisible(true);
+                        Timeline showLogin = new Timeline(
+                            new KeyFrame(Duration.ZERO, new KeyValue(loginForm.opacityProperty(), 0)),
+                            new KeyFrame(Duration.seconds(0.3), new KeyValue(loginForm.opacityProperty(), 1))
+                        );
+                        showLogin.play();
                         resetButton(createBtn, "Create Account");
-                    }
-                });
-            } catch (Exception e) {
-                Platform.runLater(() -> {
-                    showMessage(messageLabel, "Registration failed", true);
-                    resetButton(createBtn, "Create Account");
-                });
+                    });
+                    hideRegister.play();
+                }));
+                switchDelay.play();
+            } else {
+                showMessage(messageLabel, result, true);
+                resetButton(createBtn, "Create Account");
             }
+        }, e -> {
+            showMessage(messageLabel, "Registration failed", true);
+            resetButton(createBtn, "Create Account");
         });
-        registerThread.start();
+    }
+
+    // Password hashing is deliberately slow, so attempts share a small pool with a short queue
+    // and a burst beyond that is turned away instead of piling up threads
+    private <T> void submitAuthTask(Button button, String buttonText, Label messageLabel, String name, Callable<T> work,
+                                    java.util.function.Consumer<T> onSuccess, java.util.function.Consumer<Throwable> onFailure) {
+        try {
+            appScope.submit(AUTH_LANE, name, work, onSuccess, onFailure);
+        } catch (RejectedExecutionException e) {
+            showMessage(messageLabel, "Too many attempts, please try again", true);
+            resetButton(button, buttonText);
+        }
     }
 
     private String registerUser(String userId, String password) throws Exception {
         try {
-            if (userExists(userId)) {
+            if (!accounts.register(userId, password, userId.toLowerCase() + "@financeflow.com",
+                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")))) {
                 return "Username already exists";
             }
             
-            String userRecord = String.join(",",
-                userId, password, userId.toLowerCase() + "@financeflow.com",
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-            
-            Files.write(Paths.get(ACCOUNTS_FILE), Arrays.asList(userRecord),
-                       StandardOpenOption.APPEND);
-            
             java.nio.file.Path userFolder = Paths.get(BASE_FOLDER, userId);
             Files.createDirectories(userFolder);
             
@@ -2228,22 +5677,9 @@ public class ModernFinanceApp extends Application {
         }
     }
 
-    private boolean userExists(String userId) {
-        try {
-            List<String> lines = Files.readAllLines(Paths.get(ACCOUNTS_FILE));
-            return lines.stream().skip(1).anyMatch(line -> line.startsWith(userId + ","));
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
     private boolean authenticateUser(String userId, String password) throws Exception {
         try {
-            List<String> lines = Files.readAllLines(Paths.get(ACCOUNTS_FILE));
-            return lines.stream().skip(1).anyMatch(line -> {
-                String[] parts = line.split(",");
-                return parts.length >= 2 && parts[0].equals(userId) && parts[1].equals(password);
-            });
+            return accounts.authenticate(userId, password);
         } catch (Exception e) {
             throw new Exception("Authentication failed");
         }
@@ -2260,7 +5696,7 @@ public class ModernFinanceApp extends Application {
             new KeyFrame(Duration.seconds(1), new KeyValue(button.scaleXProperty(), 1))
         );
         pulse.setCycleCount(Timeline.INDEFINITE);
-        pulse.play();
+        animations.play(button, pulse);
         
         button.setUserData(pulse); // Store animation reference
     }
@@ -2272,7 +5708,7 @@ public class ModernFinanceApp extends Application {
         // Stop pulse animation if it exists
         Object pulseAnimation = button.getUserData();
         if (pulseAnimation instanceof Timeline) {
-            ((Timeline) pulseAnimation).stop();
+            animations.stop(pulseAnimation);
             button.setScaleX(1);
             button.setScaleY(1);
         }
@@ -2315,10 +5751,8 @@ public class ModernFinanceApp extends Application {
                 if (newBudget > 0) {
                     monthlyBudget = newBudget;
                     showNotification("Budget updated to ₹" + String.format("%.0f", monthlyBudget), "#10b981");
-                    // Refresh budget view if currently showing
-                    if ("Budget".equals(currentTab)) {
-                        showBudget();
-                    }
+                    // Refresh budget view if currently showing, otherwise when it is next opened
+                    markViewsStale();
                 }
             } catch (NumberFormatException e) {
                 showNotification("Invalid budget amount", "#ef4444");
@@ -2327,31 +5761,28 @@ public class ModernFinanceApp extends Application {
     }
 
     private void exportData() {
-        try {
-            String fileName = currentUserId + "_finance_export_" + 
-                            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".csv";
-            java.nio.file.Path exportPath = Paths.get(BASE_FOLDER, fileName);
-            
-            List<String> csvLines = new ArrayList<>();
-            csvLines.add("Date,Type,Category,Amount,Note");
-            
-            for (Transaction t : transactions) {
-                String line = String.join(",",
-                        t.getDate().toString(),
-                        escapeCommas(t.getType()),
-                        escapeCommas(t.getCategory()),
-                        String.valueOf(t.getAmount()),
-                        escapeCommas(t.getNote())
-                );
-                csvLines.add(line);
-            }
-            
-            Files.write(exportPath, csvLines);
-            showNotification("Data exported successfully to " + fileName, "#10b981");
-            
-        } catch (Exception e) {
-            showNotification("Export failed: " + e.getMessage(), "#ef4444");
-        }
+        String fileName = currentUserId + "_finance_export_" + 
+                        LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".csv";
+        java.nio.file.Path exportPath = Paths.get(BASE_FOLDER, fileName);
+        
+        // Lines are built here so the export matches what is on screen; only the write leaves the FX thread
+        List<String> csvLines = new ArrayList<>();
+        csvLines.add("Date,Type,Category,Amount,Note");
+        
+        transactions.liveRows().forEach(row -> csvLines.add(toCsvLine(transactions.get(row))));
+        
+        // Written beside the export and renamed, so a failed write never leaves a partial export behind
+        java.nio.file.Path partPath = exportPath.resolveSibling(fileName + ".part");
+        session.submit(STORAGE_LANE, "export", () -> {
+                try {
+                    Files.write(partPath, csvLines);
+                    return Files.move(partPath, exportPath, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(partPath);
+                }
+            },
+            path -> showNotification("Data exported successfully to " + fileName, "#10b981"),
+            e -> showNotification("Export failed: " + e.getMessage(), "#ef4444"));
     }
 
     private void setNumericInput(TextField tf) {
@@ -2362,12 +5793,12 @@ public class ModernFinanceApp extends Application {
         });
     }
 
-    private String escapeCommas(String text) {
+    private static String escapeCommas(String text) {
         if (text == null) return "";
         return text.replace(",", "&#44;").replace("\"", "&quot;");
     }
 
-    private String unescapeCommas(String text) {
+    private static String unescapeCommas(String text) {
         if (text == null) return "";
         return text.replace("&#44;", ",").replace("&quot;", "\"");
     }
@@ -2399,20 +5830,22 @@ public class ModernFinanceApp extends Application {
 
     private void startBackgroundAnimation() {
         if (backgroundAnimation != null) {
-            backgroundAnimation.stop();
+            animations.stop(backgroundAnimation);
         }
         
+        // Bound to the login root, so the cycle ends with the login screen instead of repainting the app
+        BorderPane loginRoot = rootPane;
         backgroundAnimation = new Timeline(
-            new KeyFrame(Duration.ZERO, e -> updateBackgroundGradient(0)),
-            new KeyFrame(Duration.seconds(10), e -> updateBackgroundGradient(1)),
-            new KeyFrame(Duration.seconds(20), e -> updateBackgroundGradient(2)),
-            new KeyFrame(Duration.seconds(30), e -> updateBackgroundGradient(0))
+            new KeyFrame(Duration.ZERO, e -> updateBackgroundGradient(loginRoot, 0)),
+            new KeyFrame(Duration.seconds(10), e -> updateBackgroundGradient(loginRoot, 1)),
+            new KeyFrame(Duration.seconds(20), e -> updateBackgroundGradient(loginRoot, 2)),
+            new KeyFrame(Duration.seconds(30), e -> updateBackgroundGradient(loginRoot, 0))
         );
         backgroundAnimation.setCycleCount(Timeline.INDEFINITE);
-        backgroundAnimation.play();
+        animations.play(loginRoot, backgroundAnimation);
     }
 
-    private void updateBackgroundGradient(int phase) {
+    private void updateBackgroundGradient(Pane target, int phase) {
         LinearGradient gradient;
         switch (phase) {
             case 1:
@@ -2435,9 +5868,7 @@ public class ModernFinanceApp extends Application {
                 break;
         }
         
-        if (rootPane != null) {
-            rootPane.setBackground(new Background(new BackgroundFill(gradient, CornerRadii.EMPTY, Insets.EMPTY)));
-        }
+        target.setBackground(new Background(new BackgroundFill(gradient, CornerRadii.EMPTY, Insets.EMPTY)));
     }
 
     private String createModernCSS() {
@@ -2530,6 +5961,17 @@ public class ModernFinanceApp extends Application {
                 -fx-background-color: rgba(255, 255, 255, 0.2);
                 -fx-background-radius: 10;
             }
+            
+            .list-view {
+                -fx-background-color: transparent;
+            }
+            
+            .list-view .list-cell,
+            .list-view .list-cell:filled:selected,
+            .list-view .list-cell:filled:hover {
+                -fx-background-color: transparent;
+                -fx-padding: 4 0 4 0;
+            }
             """;
     }
 